@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregations of collection rows by property value or JSON path, computed before report fill.
+ * <p>
+ * Collections larger than {@link #getParallelThreshold()} are split into chunks aggregated on shared
+ * {@link ForkJoinPool}, results are the same as of sequential computation (groups keep order of first occurrence).
+ * Null values and values of other types are skipped.
+ * 
+ * <pre>
+ * parameters.put(&quot;TOTAL&quot;, RU.sum(riders, &quot;amount&quot;));
+ * parameters.put(&quot;TOTAL_BY_TEAM&quot;, RU.groupSum(riders, &quot;team&quot;, &quot;amount&quot;));
+ * </pre>
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 18:20:51
+ */
+public final class Aggregations {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+
+    private static volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    private static volatile ForkJoinPool pool;
+
+    private Aggregations() {
+    }
+
+    /**
+     * Sum of numeric values.
+     *
+     * @param objects
+     *            rows
+     * @param method
+     *            property name or JSON path, null for rows themselves
+     * @return exact sum, zero for no values
+     */
+    @SuppressWarnings("rawtypes")
+    public static BigDecimal sum(Collection objects, final String method) {
+        return aggregate(objects, new Aggregate<BigDecimal>() {
+
+            @Override
+            BigDecimal leaf(Object[] rows, int from, int to) {
+                BigDecimal sum = BigDecimal.ZERO;
+                for (int i = from; i < to; i++) {
+                    BigDecimal value = decimal(value(rows[i], method));
+                    if (value != null) {
+                        sum = sum.add(value);
+                    }
+                }
+                return sum;
+            }
+
+            @Override
+            BigDecimal combine(BigDecimal first, BigDecimal second) {
+                return first.add(second);
+            }
+        }, BigDecimal.ZERO);
+    }
+
+    /**
+     * Number of non-null values.
+     *
+     * @param objects
+     *            rows
+     * @param method
+     *            property name or JSON path, null for rows themselves
+     * @return number of values
+     */
+    @SuppressWarnings("rawtypes")
+    public static long count(Collection objects, final String method) {
+        return aggregate(objects, new Aggregate<Long>() {
+
+            @Override
+            Long leaf(Object[] rows, int from, int to) {
+                long count = 0;
+                for (int i = from; i < to; i++) {
+                    if (value(rows[i], method) != null) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+
+            @Override
+            Long combine(Long first, Long second) {
+                return first + second;
+            }
+        }, 0L);
+    }
+
+    /**
+     * Minimal comparable value, numbers of different types are compared by value.
+     *
+     * @param objects
+     *            rows
+     * @param method
+     *            property name or JSON path, null for rows themselves
+     * @return minimal value or null for no values
+     */
+    @SuppressWarnings("rawtypes")
+    public static Object min(Collection objects, String method) {
+        return extreme(objects, method, -1);
+    }
+
+    /**
+     * Maximal comparable value, numbers of different types are compared by value.
+     *
+     * @param objects
+     *            rows
+     * @param method
+     *            property name or JSON path, null for rows themselves
+     * @return maximal value or null for no values
+     */
+    @SuppressWarnings("rawtypes")
+    public static Object max(Collection objects, String method) {
+        return extreme(objects, method, 1);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Object extreme(Collection objects, final String method, final int sign) {
+        return aggregate(objects, new Aggregate<Object>() {
+
+            @Override
+            Object leaf(Object[] rows, int from, int to) {
+                Object extreme = null;
+                for (int i = from; i < to; i++) {
+                    extreme = this.combine(extreme, value(rows[i], method));
+                }
+                return extreme;
+            }
+
+            @Override
+            Object combine(Object first, Object second) {
+                if (!(second instanceof Comparable)) {
+                    return first;
+                }
+                if (first == null) {
+                    return second;
+                }
+                // first occurrence wins for equal values
+                return compare(second, first) * sign > 0 ? second : first;
+            }
+        }, null);
+    }
+
+    /**
+     * Rows grouped by value, groups and rows keep order of collection.
+     *
+     * @param objects
+     *            rows
+     * @param method
+     *            property name or JSON path of group key
+     * @return rows by key, rows with null key are skipped
+     */
+    @SuppressWarnings("rawtypes")
+    public static Map<Object, List<Object>> groupBy(Collection objects, final String method) {
+        return aggregate(objects, new Aggregate<Map<Object, List<Object>>>() {
+
+            @Override
+            Map<Object, List<Object>> leaf(Object[] rows, int from, int to) {
+                Map<Object, List<Object>> groups = new LinkedHashMap<Object, List<Object>>();
+                for (int i = from; i < to; i++) {
+                    Object key = value(rows[i], method);
+                    if (key != null) {
+                        List<Object> group = groups.get(key);
+                        if (group == null) {
+                            group = new ArrayList<Object>();
+                            groups.put(key, group);
+                        }
+                        group.add(rows[i]);
+                    }
+                }
+                return groups;
+            }
+
+            @Override
+            Map<Object, List<Object>> combine(Map<Object, List<Object>> first, Map<Object, List<Object>> second) {
+                for (Map.Entry<Object, List<Object>> group : second.entrySet()) {
+                    List<Object> rows = first.get(group.getKey());
+                    if (rows == null) {
+                        first.put(group.getKey(), group.getValue());
+                    } else {
+                        rows.addAll(group.getValue());
+                    }
+                }
+                return first;
+            }
+        }, new LinkedHashMap<Object, List<Object>>());
+    }
+
+    /**
+     * Sums of numeric values grouped by key, groups keep order of collection.
+     *
+     * @param objects
+     *            rows
+     * @param keyMethod
+     *            property name or JSON path of group key
+     * @param valueMethod
+     *            property name or JSON path of summed value
+     * @return sums by key, rows with null key are skipped
+     */
+    @SuppressWarnings("rawtypes")
+    public static Map<Object, BigDecimal> groupSum(Collection objects, final String keyMethod,
+            final String valueMethod) {
+        return aggregate(objects, new Aggregate<Map<Object, BigDecimal>>() {
+
+            @Override
+            Map<Object, BigDecimal> leaf(Object[] rows, int from, int to) {
+                Map<Object, BigDecimal> sums = new LinkedHashMap<Object, BigDecimal>();
+                for (int i = from; i < to; i++) {
+                    Object key = value(rows[i], keyMethod);
+                    if (key != null) {
+                        BigDecimal value = decimal(value(rows[i], valueMethod));
+                        if (value == null) {
+                            value = BigDecimal.ZERO;
+                        }
+                        BigDecimal sum = sums.get(key);
+                        sums.put(key, sum == null ? value : sum.add(value));
+                    }
+                }
+                return sums;
+            }
+
+            @Override
+            Map<Object, BigDecimal> combine(Map<Object, BigDecimal> first, Map<Object, BigDecimal> second) {
+                for (Map.Entry<Object, BigDecimal> sum : second.entrySet()) {
+                    BigDecimal total = first.get(sum.getKey());
+                    first.put(sum.getKey(), total == null ? sum.getValue() : total.add(sum.getValue()));
+                }
+                return first;
+            }
+        }, new LinkedHashMap<Object, BigDecimal>());
+    }
+
+    /**
+     * Collections with more rows are aggregated in parallel.
+     */
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public static void setParallelThreshold(int threshold) {
+        parallelThreshold = Math.max(1, threshold);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static <R> R aggregate(Collection objects, Aggregate<R> aggregate, R empty) {
+
+        if (objects == null || objects.isEmpty()) {
+            return empty;
+        }
+
+        Object[] rows = objects.toArray();
+        int threshold = parallelThreshold;
+
+        if (rows.length <= threshold) {
+            return aggregate.leaf(rows, 0, rows.length);
+        }
+
+        return pool().invoke(new Chunk<R>(aggregate, rows, 0, rows.length, threshold));
+    }
+
+    private static ForkJoinPool pool() {
+        ForkJoinPool result = pool;
+        if (result == null) {
+            synchronized (Aggregations.class) {
+                result = pool;
+                if (result == null) {
+                    // workers are daemon threads, pool does not block shutdown
+                    result = new ForkJoinPool();
+                    pool = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Object value(Object row, String method) {
+        return method == null ? row : RU.property(row, method);
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        if (value instanceof Number) {
+            double number = ((Number) value).doubleValue();
+            return Double.isNaN(number) || Double.isInfinite(number) ? null : BigDecimal.valueOf(number);
+        }
+        return null;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static int compare(Object first, Object second) {
+        if (first instanceof Number && second instanceof Number && first.getClass() != second.getClass()) {
+            BigDecimal one = decimal(first);
+            BigDecimal other = decimal(second);
+            if (one != null && other != null) {
+                return one.compareTo(other);
+            }
+        }
+        try {
+            return ((Comparable) first).compareTo(second);
+        } catch (ClassCastException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Aggregation of range of rows and combination of results of adjacent ranges.
+     */
+    private abstract static class Aggregate<R> {
+
+        abstract R leaf(Object[] rows, int from, int to);
+
+        /** first result belongs to preceding rows, it can be modified */
+        abstract R combine(R first, R second);
+    }
+
+    private static final class Chunk<R> extends RecursiveTask<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Aggregate<R> aggregate;
+
+        private final transient Object[] rows;
+
+        private final int from;
+
+        private final int to;
+
+        private final int threshold;
+
+        Chunk(Aggregate<R> aggregate, Object[] rows, int from, int to, int threshold) {
+            this.aggregate = aggregate;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected R compute() {
+
+            if (this.to - this.from <= this.threshold) {
+                return this.aggregate.leaf(this.rows, this.from, this.to);
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            Chunk<R> second = new Chunk<R>(this.aggregate, this.rows, middle, this.to, this.threshold);
+            second.fork();
+            R first = new Chunk<R>(this.aggregate, this.rows, this.from, middle, this.threshold).compute();
+
+            return this.aggregate.combine(first, second.join());
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+/**
+ * Immutable table of labels by integer code, built once from arrays used by
+ * {@link RU#message(String[], int[], Number)}.
+ * <p>
+ * Compact code ranges are stored in dense array, other codes in open addressing table with primitive keys, lookup
+ * does not allocate. When code repeats, the last label wins as in {@link RU#message(String[], int[], Number)}.
+ * 
+ * <pre>
+ * CodeTable states = CodeTable.of(new String[] { &quot;New&quot;, &quot;Paid&quot; }, new int[] { 10, 20 });
+ * parameters.put(&quot;STATES&quot;, states);
+ * ...
+ * RU.message($P{STATES}, $F{state})
+ * </pre>
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 18:52:13
+ */
+public final class CodeTable {
+
+    /** maximal size of dense array as multiple of number of codes */
+    private static final int DENSE_FACTOR = 4;
+
+    private static final int DENSE_MIN_SIZE = 64;
+
+    private final String[] messages;
+
+    /** first code of dense array */
+    private final int offset;
+
+    /** dense positions (offset by one, zero for missing code) or null for hash table */
+    private final int[] dense;
+
+    /** codes of hash table */
+    private final int[] keys;
+
+    /** positions of codes in hash table, offset by one, zero for empty slot */
+    private final int[] positions;
+
+    private final int size;
+
+    private CodeTable(String[] messages, int[] codes) {
+
+        this.messages = messages.clone();
+
+        int count = codes.length;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            min = Math.min(min, codes[i]);
+            max = Math.max(max, codes[i]);
+        }
+
+        if (count == 0 || max - min < Math.max(DENSE_MIN_SIZE, (long) count * DENSE_FACTOR)) {
+
+            this.offset = count == 0 ? 0 : (int) min;
+            this.dense = new int[count == 0 ? 0 : (int) (max - min + 1)];
+            this.keys = null;
+            this.positions = null;
+
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                if (this.dense[codes[i] - this.offset] == 0) {
+                    size++;
+                }
+                this.dense[codes[i] - this.offset] = i + 1;
+            }
+            this.size = size;
+
+        } else {
+
+            this.offset = 0;
+            this.dense = null;
+
+            int capacity = Integer.highestOneBit(count * 2 - 1) << 1;
+            this.keys = new int[capacity];
+            this.positions = new int[capacity];
+
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                int slot = this.slot(codes[i]);
+                if (this.positions[slot] == 0) {
+                    this.keys[slot] = codes[i];
+                    size++;
+                }
+                this.positions[slot] = i + 1;
+            }
+            this.size = size;
+        }
+    }
+
+    /**
+     * Builds table of labels by codes.
+     *
+     * @param messages
+     *            labels, null label is returned as null
+     * @param codes
+     *            codes of labels at the same positions
+     * @return table
+     * @throws IllegalArgumentException
+     *             if arrays are null or their lengths differ
+     */
+    public static CodeTable of(String[] messages, int[] codes) {
+        if (messages == null || codes == null) {
+            throw new IllegalArgumentException("Messages and codes are required");
+        }
+        if (messages.length != codes.length) {
+            throw new IllegalArgumentException("Messages and codes differ in length: " + messages.length + " != "
+                    + codes.length);
+        }
+        return new CodeTable(messages, codes);
+    }
+
+    /**
+     * Slot of code in hash table, slot with the code or first empty slot.
+     */
+    private int slot(int code) {
+        int mask = this.keys.length - 1;
+        int hash = code * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (this.positions[slot] != 0 && this.keys[slot] != code) {
+            slot = slot + 1 & mask;
+        }
+        return slot;
+    }
+
+    private int position(int code) {
+        if (this.dense != null) {
+            long index = (long) code - this.offset;
+            return index >= 0 && index < this.dense.length ? this.dense[(int) index] - 1 : -1;
+        }
+        return this.positions[this.slot(code)] - 1;
+    }
+
+    /**
+     * Label of code.
+     *
+     * @param code
+     *            code of label
+     * @return label or null for unknown code or null label, see {@link #contains(int)}
+     */
+    public String get(int code) {
+        int position = this.position(code);
+        return position < 0 ? null : this.messages[position];
+    }
+
+    public boolean contains(int code) {
+        return this.position(code) >= 0;
+    }
+
+    /**
+     * Number of distinct codes.
+     */
+    public int size() {
+        return this.size;
+    }
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of collection rows by property value, built once and used by repeated {@link RU#in(CollectionIndex,
+ * Collection)} and {@link RU#nin(CollectionIndex, Collection)} calls (e.g. in subreports).
+ * <p>
+ * Filtering returns the same rows in the same order as {@link RU#in(Collection, String, Collection)}, but rows are
+ * looked up by value instead of scanned. Index is immutable and thread-safe, changes of indexed collection are not
+ * reflected.
+ * 
+ * <pre>
+ * parameters.put(&quot;RIDERS_BY_TEAM&quot;, RU.index(riders, &quot;team&quot;));
+ * ...
+ * RU.in($P{RIDERS_BY_TEAM}, RU.list($F{team}))
+ * </pre>
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 16:48:05
+ */
+public final class CollectionIndex {
+
+    private final String method;
+
+    private final Object[] rows;
+
+    /** property values of rows */
+    private final Object[] values;
+
+    /** ascending positions of rows by value, rows with null value are not indexed */
+    private final Map<Object, int[]> positions;
+
+    private CollectionIndex(String method, Object[] rows, Object[] values, Map<Object, int[]> positions) {
+        this.method = method;
+        this.rows = rows;
+        this.values = values;
+        this.positions = positions;
+    }
+
+    /**
+     * Builds index of rows by property value.
+     *
+     * @param objects
+     *            rows to index
+     * @param method
+     *            property name or JSON path, null to index rows by themselves
+     * @return index
+     */
+    @SuppressWarnings("rawtypes")
+    public static CollectionIndex of(Collection objects, String method) {
+
+        Object[] rows = objects == null ? new Object[0] : objects.toArray();
+        Object[] values = new Object[rows.length];
+
+        Map<Object, int[]> positions = new HashMap<Object, int[]>();
+        Map<Object, Integer> counts = new HashMap<Object, Integer>();
+
+        for (int i = 0; i < rows.length; i++) {
+            values[i] = method == null ? rows[i] : RU.property(rows[i], method);
+            if (values[i] != null) {
+                Integer count = counts.get(values[i]);
+                counts.put(values[i], count == null ? 1 : count + 1);
+            }
+        }
+
+        for (Map.Entry<Object, Integer> count : counts.entrySet()) {
+            positions.put(count.getKey(), new int[count.getValue()]);
+            count.setValue(0);
+        }
+
+        for (int i = 0; i < rows.length; i++) {
+            if (values[i] != null) {
+                Integer filled = counts.get(values[i]);
+                positions.get(values[i])[filled] = i;
+                counts.put(values[i], filled + 1);
+            }
+        }
+
+        return new CollectionIndex(method, rows, values, positions);
+    }
+
+    /**
+     * Rows with value contained in filter values, in order of indexed collection.
+     *
+     * @param filterValues
+     *            values to find
+     * @return matching rows
+     */
+    @SuppressWarnings("rawtypes")
+    public List<Object> in(Collection filterValues) {
+
+        if (filterValues == null || filterValues.isEmpty()) {
+            return new ArrayList<Object>();
+        }
+
+        List<int[]> matched = new ArrayList<int[]>();
+        int count = 0;
+
+        for (Object value : distinct(filterValues)) {
+            int[] matches = value == null ? null : this.positions.get(value);
+            if (matches != null) {
+                matched.add(matches);
+                count += matches.length;
+            }
+        }
+
+        int[] found;
+        if (matched.size() == 1) {
+            found = matched.get(0);
+        } else {
+            // union of positions of all values, restored to order of collection
+            found = new int[count];
+            int position = 0;
+            for (int[] matches : matched) {
+                System.arraycopy(matches, 0, found, position, matches.length);
+                position += matches.length;
+            }
+            Arrays.sort(found);
+        }
+
+        List<Object> filtered = new ArrayList<Object>(count);
+        for (int position : found) {
+            filtered.add(this.rows[position]);
+        }
+        return filtered;
+    }
+
+    /**
+     * Rows with value not contained in filter values, in order of indexed collection.
+     * <p>
+     * Same as {@link RU#nin(Collection, String, Collection)}, all rows are returned for empty filter values.
+     *
+     * @param filterValues
+     *            values to exclude
+     * @return not matching rows
+     */
+    @SuppressWarnings("rawtypes")
+    public List<Object> nin(Collection filterValues) {
+
+        if (filterValues == null || filterValues.isEmpty()) {
+            return Collections.unmodifiableList(Arrays.asList(this.rows));
+        }
+
+        boolean[] excluded = new boolean[this.rows.length];
+        int count = this.rows.length;
+
+        for (int i = 0; i < this.values.length; i++) {
+            if (this.values[i] == null) {
+                excluded[i] = true;
+                count--;
+            }
+        }
+
+        for (Object value : distinct(filterValues)) {
+            int[] matches = value == null ? null : this.positions.get(value);
+            if (matches != null) {
+                for (int position : matches) {
+                    excluded[position] = true;
+                }
+                count -= matches.length;
+            }
+        }
+
+        List<Object> filtered = new ArrayList<Object>(count);
+        for (int i = 0; i < this.rows.length; i++) {
+            if (!excluded[i]) {
+                filtered.add(this.rows[i]);
+            }
+        }
+        return filtered;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static Collection<Object> distinct(Collection filterValues) {
+        return filterValues instanceof Set ? filterValues : RU.filterSet(filterValues);
+    }
+
+    /**
+     * Rows with value equal to value.
+     *
+     * @param value
+     *            value to find
+     * @return number of rows
+     */
+    public int count(Object value) {
+        int[] matches = value == null ? null : this.positions.get(value);
+        return matches == null ? 0 : matches.length;
+    }
+
+    /**
+     * Distinct non-null values of rows.
+     */
+    public Set<Object> values() {
+        return Collections.unmodifiableSet(this.positions.keySet());
+    }
+
+    public int size() {
+        return this.rows.length;
+    }
+
+    public String getMethod() {
+        return this.method;
+    }
+
+}
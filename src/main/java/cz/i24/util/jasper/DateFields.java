@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Year, month and day of date in default time zone, computed together for bands printing all of them.
+ * <p>
+ * Fields are computed from day since epoch with offset of time zone, no {@link Calendar} is created. Dates before
+ * Gregorian cutover (15.10.1582) and default locales with other than Gregorian calendar (e.g. Thai Buddhist) are
+ * computed by {@link Calendar} with the same result as before.
+ * 
+ * <pre>
+ * DateFields fields = RU.dateFields($F{created});
+ * fields.getDay() + ". " + fields.getMonth() + ". " + fields.getYear()
+ * </pre>
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 20:31:18
+ */
+public final class DateFields {
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    /** 15.10.1582, first day of Gregorian calendar */
+    private static final long GREGORIAN_CUTOVER_DAY = -141427;
+
+    /** days from 1.3.0000 to 1.1.1970 */
+    private static final long EPOCH_SHIFT = 719468;
+
+    private static final long DAYS_PER_ERA = 146097;
+
+    /** last checked default locale, calendar of locale is Gregorian when flag is set */
+    private static volatile Object[] checkedLocale = { null, Boolean.FALSE };
+
+    private final int year;
+
+    private final int month;
+
+    private final int day;
+
+    private DateFields(long fields) {
+        this.year = year(fields);
+        this.month = month(fields);
+        this.day = day(fields);
+    }
+
+    /**
+     * Fields of date as by {@link Calendar#getInstance()}.
+     *
+     * @param date
+     *            date
+     * @return fields or null for null date
+     */
+    public static DateFields of(Date date) {
+        return date == null ? null : new DateFields(fields(date, true));
+    }
+
+    /**
+     * Fields of date as by {@link GregorianCalendar} regardless of default locale.
+     *
+     * @param date
+     *            date
+     * @return fields or null for null date
+     */
+    public static DateFields ofGregorian(Date date) {
+        return date == null ? null : new DateFields(fields(date, false));
+    }
+
+    public int getYear() {
+        return this.year;
+    }
+
+    /**
+     * Month from 1 to 12.
+     */
+    public int getMonth() {
+        return this.month;
+    }
+
+    public int getDay() {
+        return this.day;
+    }
+
+    /**
+     * Packed fields of not null date, see {@link #year(long)}, {@link #month(long)} and {@link #day(long)}.
+     *
+     * @param date
+     *            date
+     * @param localeCalendar
+     *            calendar of default locale is used, otherwise Gregorian calendar
+     * @return packed fields
+     */
+    static long fields(Date date, boolean localeCalendar) {
+
+        long time = date.getTime();
+        TimeZone zone = TimeZone.getDefault();
+        long days = floorDiv(time + zone.getOffset(time), MILLIS_PER_DAY);
+
+        if (days < GREGORIAN_CUTOVER_DAY || localeCalendar && !isGregorianLocale()) {
+            Calendar cal = localeCalendar ? Calendar.getInstance(zone) : new GregorianCalendar(zone);
+            cal.setTime(date);
+            return pack(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH));
+        }
+
+        // civil date of day in proleptic Gregorian calendar, years start at 1st March
+        long shifted = days + EPOCH_SHIFT;
+        long era = floorDiv(shifted, DAYS_PER_ERA);
+        long dayOfEra = shifted - era * DAYS_PER_ERA;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long marchMonth = (5 * dayOfYear + 2) / 153;
+
+        int day = (int) (dayOfYear - (153 * marchMonth + 2) / 5 + 1);
+        int month = (int) (marchMonth < 10 ? marchMonth + 3 : marchMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        return pack(year, month, day);
+    }
+
+    private static boolean isGregorianLocale() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        Object[] checked = checkedLocale;
+        if (checked[0] != locale) {
+            boolean gregorian = Calendar.getInstance(locale).getClass() == GregorianCalendar.class;
+            checked = new Object[] { locale, Boolean.valueOf(gregorian) };
+            checkedLocale = checked;
+        }
+        return ((Boolean) checked[1]).booleanValue();
+    }
+
+    private static long floorDiv(long x, long y) {
+        long quotient = x / y;
+        return x % y < 0 ? quotient - 1 : quotient;
+    }
+
+    private static long pack(int year, int month, int day) {
+        return (long) year << 9 | month << 5 | day;
+    }
+
+    static int year(long fields) {
+        return (int) (fields >> 9);
+    }
+
+    static int month(long fields) {
+        return (int) (fields >> 5 & 0xF);
+    }
+
+    static int day(long fields) {
+        return (int) (fields & 0x1F);
+    }
+
+    @Override
+    public String toString() {
+        return this.day + "." + this.month + "." + this.year;
+    }
+
+}
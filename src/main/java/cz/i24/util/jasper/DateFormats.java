@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Registry of date formats keyed by mask, locale and time zone.
+ * <p>
+ * {@link SimpleDateFormat} is not thread-safe, so formats are cached per thread. Returned formats are shared, they
+ * must not be modified (time zone, leniency, pattern) by caller.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 13:15:22
+ */
+public final class DateFormats {
+
+    /** maximum number of cached formats per thread */
+    private static final int MAX_FORMATS = 64;
+
+    private static final ThreadLocal<Map<String, Entry>> FORMATS = new ThreadLocal<Map<String, Entry>>() {
+
+        @Override
+        protected Map<String, Entry> initialValue() {
+            return new HashMap<String, Entry>();
+        }
+    };
+
+    private DateFormats() {
+    }
+
+    /**
+     * Format of mask with default locale and time zone, same as <code>new SimpleDateFormat(mask)</code>.
+     *
+     * @param mask
+     *            pattern of {@link SimpleDateFormat}
+     * @return shared format of current thread
+     */
+    public static DateFormat get(String mask) {
+        return get(mask, Locale.getDefault(Locale.Category.FORMAT), TimeZone.getDefault());
+    }
+
+    /**
+     * Format of mask with locale and time zone.
+     *
+     * @param mask
+     *            pattern of {@link SimpleDateFormat}
+     * @param locale
+     *            locale of format
+     * @param timeZone
+     *            time zone of format
+     * @return shared format of current thread
+     */
+    public static DateFormat get(String mask, Locale locale, TimeZone timeZone) {
+
+        Map<String, Entry> formats = FORMATS.get();
+
+        Entry first = formats.get(mask);
+        for (Entry entry = first; entry != null; entry = entry.next) {
+            if (entry.locale.equals(locale) && entry.timeZone.equals(timeZone)) {
+                return entry.format;
+            }
+        }
+
+        if (formats.size() >= MAX_FORMATS) {
+            formats.clear();
+            first = null;
+        }
+
+        SimpleDateFormat format = new SimpleDateFormat(mask, locale);
+        format.setTimeZone(timeZone);
+        formats.put(mask, new Entry(locale, timeZone, format, first));
+
+        return format;
+    }
+
+    /**
+     * Formats date by mask with default locale and time zone.
+     */
+    public static String format(Date date, String mask) {
+        return get(mask).format(date);
+    }
+
+    /**
+     * Parses text by mask with default locale and time zone.
+     */
+    public static Date parse(String text, String mask) throws ParseException {
+        return get(mask).parse(text);
+    }
+
+    private static final class Entry {
+
+        private final Locale locale;
+
+        private final TimeZone timeZone;
+
+        private final SimpleDateFormat format;
+
+        private final Entry next;
+
+        Entry(Locale locale, TimeZone timeZone, SimpleDateFormat format, Entry next) {
+            this.locale = locale;
+            this.timeZone = (TimeZone) timeZone.clone();
+            this.format = format;
+            this.next = next;
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Lazy read-only view of rows filtered by property value, rows are tested while iterated.
+ * <p>
+ * Content is the same as result of {@link RU#in(Collection, String, Collection)} or
+ * {@link RU#nin(Collection, String, Collection)}, but no intermediate list is built and iteration can stop early.
+ * Every iteration (and {@link #size()}) filters rows again, so view reflects changes of source collection.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 17:48:26
+ */
+public final class FilteredCollection extends AbstractCollection<Object> {
+
+    @SuppressWarnings("rawtypes")
+    private final Collection objects;
+
+    private final String method;
+
+    private final Set<Object> filter;
+
+    private final boolean negation;
+
+    /**
+     * View of rows with value contained (or not contained for negation) in filter values.
+     *
+     * @param objects
+     *            rows to filter
+     * @param method
+     *            property name or JSON path, null to filter rows by themselves
+     * @param filterValues
+     *            values to find, all rows are returned for empty values and negation
+     * @param negation
+     *            rows with value not contained in filter values are returned
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public FilteredCollection(Collection objects, String method, Collection filterValues, boolean negation) {
+        this.objects = objects == null ? Collections.emptyList() : objects;
+        this.method = method;
+        this.filter = filterValues == null || filterValues.isEmpty() ? null : filterValues instanceof Set
+                ? (Set<Object>) filterValues : RU.filterSet(filterValues);
+        this.negation = negation;
+    }
+
+    private boolean accept(Object obj) {
+
+        if (this.filter == null) {
+            return this.negation;
+        }
+
+        Object value = this.method == null ? obj : RU.property(obj, this.method);
+        return value != null && this.filter.contains(value) != this.negation;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<Object> iterator() {
+
+        if (this.filter == null && !this.negation) {
+            return Collections.emptyIterator();
+        }
+
+        @SuppressWarnings("unchecked")
+        final Iterator<Object> rows = this.objects.iterator();
+
+        return new Iterator<Object>() {
+
+            private Object next;
+
+            private boolean found;
+
+            @Override
+            public boolean hasNext() {
+                while (!this.found && rows.hasNext()) {
+                    Object row = rows.next();
+                    if (FilteredCollection.this.accept(row)) {
+                        this.next = row;
+                        this.found = true;
+                    }
+                }
+                return this.found;
+            }
+
+            @Override
+            public Object next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object row = this.next;
+                this.next = null;
+                this.found = false;
+                return row;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Number of matching rows, rows are filtered again.
+     */
+    @Override
+    public int size() {
+        if (this.filter == null) {
+            return this.negation ? this.objects.size() : 0;
+        }
+        int size = 0;
+        for (Object obj : this.objects) {
+            if (this.accept(obj)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return !this.iterator().hasNext();
+    }
+
+}
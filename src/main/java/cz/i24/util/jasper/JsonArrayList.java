@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Read-only list view of JSON array returned by {@link RU#json(Object, String)}, elements are not copied.
+ * <p>
+ * View reflects changes of underlying array node, modification of view throws
+ * {@link UnsupportedOperationException}.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 15:40:12
+ */
+public final class JsonArrayList extends AbstractList<JsonNode> implements RandomAccess {
+
+    private final JsonNode array;
+
+    /**
+     * View of array node.
+     *
+     * @param array
+     *            array node
+     */
+    public JsonArrayList(JsonNode array) {
+        if (array == null || !array.isArray()) {
+            throw new IllegalArgumentException("JSON array is required");
+        }
+        this.array = array;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonNode get(int index) {
+        if (index < 0 || index >= this.array.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.array.size());
+        }
+        return this.array.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return this.array.size();
+    }
+
+    /**
+     * Underlying array node.
+     */
+    public JsonNode getArray() {
+        return this.array;
+    }
+
+}
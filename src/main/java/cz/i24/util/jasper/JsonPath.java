@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Compiled path to value in JSON tree, e.g. <code>customer.address.city</code> or <code>items[0].name</code>.
+ * <p>
+ * Path consists of field names separated by dot, each name can be followed by array indices in brackets. Numeric
+ * name applied to array is used as index too (<code>items.0.name</code>). Bracket of field name is escaped by
+ * backslash, field <code>k[0]</code> is path <code>a.k\[0]</code> (<code>"a.k\\[0]"</code> in Java), unescaped
+ * <code>a.k[0]</code> is first item of array <code>k</code>. Compiled paths are immutable and can be held by report
+ * variable, paths used by {@link RU#json(Object, String)} are cached, see {@link #of(String)}.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 14:31:50
+ */
+public final class JsonPath {
+
+    /** paths of reports are fixed, paths above limit are compiled for each call */
+    public static final int MAX_CACHED_PATHS = 1000;
+
+    private static final ConcurrentHashMap<String, JsonPath> CACHE = new ConcurrentHashMap<String, JsonPath>();
+
+    private final String path;
+
+    /** field names, null for array index step */
+    private final String[] names;
+
+    /** array indices, or index parsed from numeric name, -1 otherwise */
+    private final int[] indexes;
+
+    private JsonPath(String path, String[] names, int[] indexes) {
+        this.path = path;
+        this.names = names;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Returns cached compiled path or compiles it, lookup of cached path does not lock.
+     *
+     * @param path
+     *            path to value
+     * @return compiled path
+     */
+    public static JsonPath of(String path) {
+        JsonPath compiled = path == null ? null : CACHE.get(path);
+        if (compiled == null) {
+            compiled = compile(path);
+            if (CACHE.size() < MAX_CACHED_PATHS) {
+                CACHE.putIfAbsent(path, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Compiles path without cache, trailing empty names are ignored.
+     *
+     * @param path
+     *            path to value
+     * @return compiled path
+     */
+    public static JsonPath compile(String path) {
+
+        if (path == null) {
+            throw new IllegalArgumentException("JSON path is required");
+        }
+
+        List<String> names = new ArrayList<String>();
+        List<Integer> indexes = new ArrayList<Integer>();
+
+        int start = 0;
+        while (start <= path.length()) {
+
+            int end = path.indexOf('.', start);
+            if (end < 0) {
+                end = path.length();
+            }
+
+            String part = path.substring(start, end);
+            int bracket = indexOfBracket(part);
+            List<Integer> parsed = new ArrayList<Integer>();
+
+            if (bracket >= 0 && parseIndexes(part.substring(bracket), parsed)) {
+                String name = unescape(part.substring(0, bracket));
+                if (!name.isEmpty()) {
+                    names.add(name);
+                    indexes.add(parseIndex(name));
+                }
+                for (Integer index : parsed) {
+                    names.add(null);
+                    indexes.add(index);
+                }
+            } else {
+                String name = unescape(part);
+                names.add(name);
+                indexes.add(parseIndex(name));
+            }
+
+            start = end + 1;
+        }
+
+        // same as String.split, trailing empty names are removed
+        while (!names.isEmpty() && "".equals(names.get(names.size() - 1))) {
+            names.remove(names.size() - 1);
+            indexes.remove(indexes.size() - 1);
+        }
+
+        int[] steps = new int[indexes.size()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = indexes.get(i);
+        }
+
+        return new JsonPath(path, names.toArray(new String[names.size()]), steps);
+    }
+
+    /**
+     * Position of first bracket not escaped by backslash, -1 if there is none.
+     */
+    private static int indexOfBracket(String part) {
+        int bracket = part.indexOf('[');
+        while (bracket > 0 && part.charAt(bracket - 1) == '\\') {
+            bracket = part.indexOf('[', bracket + 1);
+        }
+        return bracket;
+    }
+
+    private static String unescape(String name) {
+        return name.indexOf("\\[") < 0 ? name : name.replace("\\[", "[");
+    }
+
+    private static boolean parseIndexes(String brackets, List<Integer> indexes) {
+
+        int position = 0;
+        while (position < brackets.length()) {
+            int close = brackets.indexOf(']', position);
+            int index = brackets.charAt(position) == '[' && close > 0 ? parseIndex(brackets.substring(position + 1,
+                    close)) : -1;
+            if (index < 0) {
+                indexes.clear();
+                return false;
+            }
+            indexes.add(index);
+            position = close + 1;
+        }
+
+        return true;
+    }
+
+    private static int parseIndex(String value) {
+        if (value.isEmpty() || value.length() > 9) {
+            return -1;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        return Integer.parseInt(value);
+    }
+
+    /**
+     * Returns node of path or null if path does not exist.
+     *
+     * @param node
+     *            root node
+     * @return node of path
+     */
+    public JsonNode resolve(JsonNode node) {
+
+        JsonNode actual = node;
+        for (int i = 0; actual != null && i < this.names.length; i++) {
+            actual = this.step(actual, i);
+        }
+        return actual;
+    }
+
+    JsonNode step(JsonNode node, int i) {
+        if (this.names[i] == null || this.indexes[i] >= 0 && node.isArray()) {
+            return node.get(this.indexes[i]);
+        }
+        return node.get(this.names[i]);
+    }
+
+    /**
+     * Field name of step, null for array index step.
+     */
+    String name(int i) {
+        return this.names[i];
+    }
+
+    /**
+     * Tests if step of this path is same as step of other path.
+     */
+    boolean sameStep(int i, JsonPath other, int j) {
+        return this.indexes[i] == other.indexes[j]
+                && (this.names[i] == null ? other.names[j] == null : this.names[i].equals(other.names[j]));
+    }
+
+    /**
+     * Number of steps of path.
+     */
+    public int length() {
+        return this.names.length;
+    }
+
+    public String getPath() {
+        return this.path;
+    }
+
+    @Override
+    public String toString() {
+        return this.path;
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Set of compiled paths resolved together, shared prefixes of paths are walked only once.
+ * <p>
+ * Created once per report (e.g. as report parameter), values are returned in order of paths.
+ * 
+ * <pre>
+ * JsonProjection.of(&quot;customer.name&quot;, &quot;customer.address.city&quot;, &quot;customer.address.zip&quot;)
+ * ...
+ * RU.jsonValues($F{data}, $P{PROJECTION})
+ * </pre>
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 16:05:48
+ */
+public final class JsonProjection {
+
+    private final JsonPath[] paths;
+
+    private final Step root;
+
+    private JsonProjection(JsonPath[] paths) {
+
+        this.paths = paths;
+        this.root = new Step(null, -1);
+
+        for (int p = 0; p < paths.length; p++) {
+            Step step = this.root;
+            for (int i = 0; i < paths[p].length(); i++) {
+                step = step.child(paths[p], i);
+            }
+            step.targets.add(p);
+        }
+    }
+
+    /**
+     * Projection of paths, compiled paths are taken from cache of {@link JsonPath#of(String)}.
+     *
+     * @param paths
+     *            paths to values
+     * @return projection
+     */
+    public static JsonProjection of(String... paths) {
+        JsonPath[] compiled = new JsonPath[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            compiled[i] = JsonPath.of(paths[i]);
+        }
+        return new JsonProjection(compiled);
+    }
+
+    /**
+     * Projection of compiled paths.
+     *
+     * @param paths
+     *            compiled paths
+     * @return projection
+     */
+    public static JsonProjection of(JsonPath... paths) {
+        return new JsonProjection(paths.clone());
+    }
+
+    /**
+     * Resolves nodes of all paths in one walk.
+     *
+     * @param node
+     *            root node
+     * @return nodes in order of paths, null for paths that do not exist
+     */
+    public JsonNode[] resolve(JsonNode node) {
+        JsonNode[] nodes = new JsonNode[this.paths.length];
+        if (node != null) {
+            this.root.resolve(node, nodes);
+        }
+        return nodes;
+    }
+
+    /**
+     * Resolves values of all paths in one walk, values are converted as by {@link RU#json(Object, String, Object)}.
+     *
+     * @param node
+     *            root node
+     * @param defaultValue
+     *            value of paths that do not exist or are null
+     * @return values in order of paths
+     */
+    public Object[] values(JsonNode node, Object defaultValue) {
+        JsonNode[] nodes = this.resolve(node);
+        Object[] values = new Object[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            values[i] = RU.jsonValue(nodes[i], defaultValue);
+        }
+        return values;
+    }
+
+    public int size() {
+        return this.paths.length;
+    }
+
+    public JsonPath getPath(int index) {
+        return this.paths[index];
+    }
+
+    /**
+     * Node of prefix tree, step of first path reaching it is applied to node of parent.
+     */
+    private static final class Step {
+
+        private final JsonPath path;
+
+        private final int step;
+
+        private final List<Step> children = new ArrayList<Step>(2);
+
+        /** indexes of paths ending at this step */
+        private final List<Integer> targets = new ArrayList<Integer>(1);
+
+        Step(JsonPath path, int step) {
+            this.path = path;
+            this.step = step;
+        }
+
+        Step child(JsonPath other, int i) {
+            for (Step child : this.children) {
+                if (child.path.sameStep(child.step, other, i)) {
+                    return child;
+                }
+            }
+            Step child = new Step(other, i);
+            this.children.add(child);
+            return child;
+        }
+
+        void resolve(JsonNode node, JsonNode[] nodes) {
+            for (Integer target : this.targets) {
+                nodes[target] = node;
+            }
+            for (Step child : this.children) {
+                JsonNode value = child.path.step(node, child.step);
+                if (value != null) {
+                    child.resolve(value, nodes);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+/**
+ * Nodes of paths resolved for last row, opt-in memo of {@link RU#jsonMemo(JsonRowMemo, Object, String, Object)}.
+ * <p>
+ * Detail band evaluates many expressions on the same row node, each path is resolved only once per row. Row is
+ * recognized by identity: data source must supply new node for each row and must not modify node of current row,
+ * otherwise stale values are returned. Memo is not thread-safe, it is created for one fill (e.g. as report parameter,
+ * subreports filled by other threads need own memo) and released with it.
+ * 
+ * <pre>
+ * parameters.put(&quot;JSON_MEMO&quot;, new JsonRowMemo());
+ * ...
+ * RU.jsonMemo($P{JSON_MEMO}, $F{_THIS}, &quot;customer.address.city&quot;)
+ * </pre>
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 16:21:30
+ */
+public final class JsonRowMemo {
+
+    /** maximum number of paths per row */
+    private static final int MAX_PATHS = 256;
+
+    /** marker of path not existing in row */
+    private static final JsonNode MISSING = MissingNode.getInstance();
+
+    private final Map<String, JsonNode> nodes = new HashMap<String, JsonNode>();
+
+    private JsonNode row;
+
+    /**
+     * Returns node of path in row, resolved nodes are kept until other row is used.
+     *
+     * @param row
+     *            row node
+     * @param path
+     *            path to value
+     * @return node of path or null if path does not exist
+     */
+    public JsonNode resolve(JsonNode row, String path) {
+
+        if (this.row != row || this.nodes.size() >= MAX_PATHS) {
+            this.nodes.clear();
+            this.row = row;
+        }
+
+        JsonNode node = this.nodes.get(path);
+        if (node == null) {
+            node = JsonPath.of(path).resolve(row);
+            this.nodes.put(path, node == null ? MISSING : node);
+        } else if (node == MISSING) {
+            node = null;
+        }
+
+        return node;
+    }
+
+    /**
+     * Releases row, e.g. when data source reuses node of row.
+     */
+    public void clear() {
+        this.nodes.clear();
+        this.row = null;
+    }
+
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Data source reading records of JSON array from stream one by one, memory does not depend on size of document.
+ * <p>
+ * Records are located by path of field names (e.g. <code>data.riders</code>, empty path for root array). Only values
+ * of projected paths are kept in record, other values are skipped by parser. Field value is resolved by
+ * {@link JsonPath} in field description, or in field name when description is empty.
+ * 
+ * <pre>
+ * JsonStreamDataSource source = new JsonStreamDataSource(stream, &quot;data.riders&quot;, report.getFields());
+ * try {
+ *     JasperFillManager.fillReport(report, parameters, source);
+ * } finally {
+ *     source.close();
+ * }
+ * </pre>
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 15:02:37
+ */
+public class JsonStreamDataSource implements JRDataSource, Closeable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JsonParser parser;
+
+    private final String recordPath;
+
+    /** projected values, null for whole records */
+    private final Projection projection;
+
+    private boolean started;
+
+    private boolean finished;
+
+    private JsonNode record;
+
+    /**
+     * Data source of whole records.
+     *
+     * @param stream
+     *            JSON document
+     * @param recordPath
+     *            field names of records array separated by dot, empty for root array
+     */
+    public JsonStreamDataSource(InputStream stream, String recordPath) throws JRException {
+        this(parser(stream), recordPath, (Collection<String>) null);
+    }
+
+    /**
+     * Data source of records projected to values of report fields.
+     *
+     * @param stream
+     *            JSON document
+     * @param recordPath
+     *            field names of records array separated by dot, empty for root array
+     * @param fields
+     *            fields of report
+     */
+    public JsonStreamDataSource(InputStream stream, String recordPath, JRField[] fields) throws JRException {
+        this(parser(stream), recordPath, paths(fields));
+    }
+
+    /**
+     * Data source of records projected to values of paths.
+     *
+     * @param parser
+     *            parser of JSON document, closed by {@link #close()}
+     * @param recordPath
+     *            field names of records array separated by dot, empty for root array
+     * @param paths
+     *            paths of values kept in record, null for whole records
+     */
+    public JsonStreamDataSource(JsonParser parser, String recordPath, Collection<String> paths) {
+
+        if (parser == null) {
+            throw new IllegalArgumentException("JSON parser is required");
+        }
+
+        this.parser = parser;
+        this.recordPath = recordPath == null ? "" : recordPath;
+
+        if (paths == null) {
+            this.projection = null;
+        } else {
+            this.projection = new Projection();
+            for (String path : paths) {
+                this.projection.add(JsonPath.of(path));
+            }
+        }
+    }
+
+    private static JsonParser parser(InputStream stream) throws JRException {
+        try {
+            return MAPPER.getFactory().createParser(stream);
+        } catch (IOException e) {
+            throw new JRException("JSON stream open", e);
+        }
+    }
+
+    private static Collection<String> paths(JRField[] fields) {
+
+        if (fields == null) {
+            return null;
+        }
+
+        Collection<String> paths = new ArrayList<String>(fields.length);
+        for (JRField field : fields) {
+            paths.add(path(field));
+        }
+        return paths;
+    }
+
+    private static String path(JRField field) {
+        return RU.isBlank(field.getDescription()) ? field.getName() : field.getDescription();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean next() throws JRException {
+
+        try {
+
+            if (!this.started) {
+                this.started = true;
+                this.finished = !this.moveToRecords();
+            }
+
+            if (this.finished) {
+                return false;
+            }
+
+            JsonToken token = this.parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                this.finished = true;
+                this.record = null;
+                return false;
+            }
+
+            this.record = this.read(this.projection);
+            return true;
+
+        } catch (IOException e) {
+            throw new JRException("JSON stream read", e);
+        }
+    }
+
+    /**
+     * Moves parser to start of records array.
+     *
+     * @return false when records array does not exist
+     */
+    private boolean moveToRecords() throws IOException {
+
+        JsonToken token = this.parser.nextToken();
+
+        for (String name : this.recordPath.split("[.]")) {
+
+            if (name.isEmpty()) {
+                continue;
+            }
+
+            if (token != JsonToken.START_OBJECT) {
+                return false;
+            }
+
+            token = null;
+            while (this.parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = this.parser.getCurrentName();
+                JsonToken value = this.parser.nextToken();
+                if (name.equals(field)) {
+                    token = value;
+                    break;
+                }
+                this.parser.skipChildren();
+            }
+
+            if (token == null) {
+                return false;
+            }
+        }
+
+        return token == JsonToken.START_ARRAY;
+    }
+
+    /**
+     * Reads value at current token, objects are reduced to projected fields.
+     */
+    private JsonNode read(Projection projected) throws IOException {
+
+        JsonToken token = this.parser.getCurrentToken();
+
+        if (token == JsonToken.VALUE_NULL) {
+            return NullNode.getInstance();
+        }
+
+        if (projected == null || projected.whole || token != JsonToken.START_OBJECT) {
+            return MAPPER.readTree(this.parser);
+        }
+
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        while (this.parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = this.parser.getCurrentName();
+            this.parser.nextToken();
+            Projection child = projected.children.get(name);
+            if (child == null) {
+                this.parser.skipChildren();
+            } else {
+                node.put(name, this.read(child));
+            }
+        }
+
+        return node;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getFieldValue(JRField field) throws JRException {
+
+        if (this.record == null) {
+            return null;
+        }
+
+        return value(JsonPath.of(path(field)).resolve(this.record), field);
+    }
+
+    private static Object value(JsonNode node, JRField field) throws JRException {
+
+        if (node == null || node.isNull()) {
+            return null;
+        }
+
+        Class<?> type = field.getValueClass();
+
+        if (type.isInstance(node)) {
+            return node;
+        }
+        if (String.class.equals(type)) {
+            return node.asText();
+        }
+        if (Boolean.class.equals(type)) {
+            return node.isBoolean() ? node.booleanValue() : Boolean.valueOf(node.asText());
+        }
+        if (Integer.class.equals(type)) {
+            return node.asInt();
+        }
+        if (Long.class.equals(type)) {
+            return node.asLong();
+        }
+        if (Short.class.equals(type)) {
+            return (short) node.asInt();
+        }
+        if (Byte.class.equals(type)) {
+            return (byte) node.asInt();
+        }
+        if (Double.class.equals(type)) {
+            return node.asDouble();
+        }
+        if (Float.class.equals(type)) {
+            return (float) node.asDouble();
+        }
+        if (BigDecimal.class.equals(type)) {
+            return node.isNumber() ? node.decimalValue() : new BigDecimal(node.asText());
+        }
+        if (BigInteger.class.equals(type)) {
+            return node.isNumber() ? node.bigIntegerValue() : new BigInteger(node.asText());
+        }
+        if (Number.class.equals(type)) {
+            return RU.jsonValue(node, null);
+        }
+        if (Date.class.equals(type)) {
+            return RU.date(node.asText());
+        }
+
+        throw new JRException("Field " + field.getName() + " of type " + type.getName() + " not supported");
+    }
+
+    /**
+     * Current record reduced to projected values.
+     */
+    public JsonNode getRecord() {
+        return this.record;
+    }
+
+    public String getRecordPath() {
+        return this.recordPath;
+    }
+
+    /**
+     * Closes parser and underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        this.parser.close();
+    }
+
+    /**
+     * Tree of field names kept in records.
+     */
+    private static final class Projection {
+
+        private final Map<String, Projection> children = new HashMap<String, Projection>();
+
+        /** whole value is kept */
+        private boolean whole;
+
+        void add(JsonPath path) {
+
+            Projection node = this;
+            for (int i = 0; i < path.length() && !node.whole; i++) {
+                String name = path.name(i);
+                if (name == null) {
+                    // array index, whole array is kept
+                    break;
+                }
+                Projection child = node.children.get(name);
+                if (child == null) {
+                    child = new Projection();
+                    node.children.put(name, child);
+                }
+                node = child;
+            }
+
+            node.whole = true;
+        }
+    }
+
+}
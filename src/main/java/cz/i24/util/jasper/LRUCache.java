@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, thread-safe cache with least-recently-used eviction and hit/miss counters.
+ * <p>
+ * Size is limited by number of entries and optionally by total weight of entries (see {@link #weigh(Object)} and
+ * {@link #weigh(Object, Object)}).
+ * Setting maximum entries to zero disables caching.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 09:12:40
+ */
+public class LRUCache<K, V> {
+
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<K, V>(16, 0.75f, true);
+
+    private int maxEntries;
+
+    private long maxWeight;
+
+    private long weight;
+
+    private long hits;
+
+    private long misses;
+
+    /**
+     * Cache limited by number of entries only.
+     *
+     * @param maxEntries
+     *            maximum number of entries, zero disables cache
+     */
+    public LRUCache(int maxEntries) {
+        this(maxEntries, 0);
+    }
+
+    /**
+     * Cache limited by number of entries and total weight of values.
+     *
+     * @param maxEntries
+     *            maximum number of entries, zero disables cache
+     * @param maxWeight
+     *            maximum total weight of values, zero or less means unlimited
+     */
+    public LRUCache(int maxEntries, long maxWeight) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Weight of cached value used for {@link #getMaxWeight()} limit, default is zero.
+     *
+     * @param value
+     *            cached value
+     * @return weight of value
+     */
+    protected long weigh(V value) {
+        return 0;
+    }
+
+    /**
+     * Weight of cached entry used for {@link #getMaxWeight()} limit, override when key holds large data, default is
+     * weight of value.
+     *
+     * @param key
+     *            key of value
+     * @param value
+     *            cached value
+     * @return weight of entry
+     */
+    protected long weigh(K key, V value) {
+        return this.weigh(value);
+    }
+
+    public synchronized V get(K key) {
+        V value = this.entries.get(key);
+        if (value == null) {
+            this.misses++;
+        } else {
+            this.hits++;
+        }
+        return value;
+    }
+
+    /**
+     * Puts value to cache, value heavier than {@link #getMaxWeight()} is not cached.
+     *
+     * @param key
+     *            key of value
+     * @param value
+     *            value to cache
+     * @return previous value
+     */
+    public synchronized V put(K key, V value) {
+
+        if (key == null || value == null || this.maxEntries <= 0) {
+            return null;
+        }
+
+        long valueWeight = this.weigh(key, value);
+        if (this.maxWeight > 0 && valueWeight > this.maxWeight) {
+            return null;
+        }
+
+        V previous = this.entries.put(key, value);
+        if (previous != null) {
+            this.weight -= this.weigh(key, previous);
+        }
+        this.weight += valueWeight;
+
+        this.evict();
+        return previous;
+    }
+
+    public synchronized V remove(K key) {
+        V previous = this.entries.remove(key);
+        if (previous != null) {
+            this.weight -= this.weigh(key, previous);
+        }
+        return previous;
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+        this.weight = 0;
+    }
+
+    public synchronized void resetStatistics() {
+        this.hits = 0;
+        this.misses = 0;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<K, V>> iterator = this.entries.entrySet().iterator();
+        while (iterator.hasNext()
+                && (this.entries.size() > this.maxEntries || this.maxWeight > 0 && this.weight > this.maxWeight)) {
+            Map.Entry<K, V> entry = iterator.next();
+            this.weight -= this.weigh(entry.getKey(), entry.getValue());
+            iterator.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return this.weight;
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized int getMaxEntries() {
+        return this.maxEntries;
+    }
+
+    public synchronized void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.evict();
+    }
+
+    public synchronized long getMaxWeight() {
+        return this.maxWeight;
+    }
+
+    public synchronized void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+        this.evict();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return super.toString() + " [size=" + this.entries.size() + ", weight=" + this.weight + ", hits=" + this.hits
+                + ", misses=" + this.misses + "]";
+    }
+
+}
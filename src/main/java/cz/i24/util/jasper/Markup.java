@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.util.Arrays;
+
+/**
+ * Builder of JasperReports styled text, each call wraps markup built so far.
+ * <p>
+ * Markup is written into one buffer of current thread when converted to string, no intermediate strings are created
+ * for nested tags. Builder is not thread-safe, it is created for single expression.
+ * 
+ * <pre>
+ * RU.styled($F{name}).bold().color(&quot;red&quot;).font(&quot;arial&quot;, 9)
+ * </pre>
+ * 
+ * is the same as <code>RU.style("arial", RU.red(RU.b($F{name})), 9)</code>. Text of user data can be escaped by
+ * {@link #escaped()} while it is copied into buffer.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 19:18:40
+ */
+public final class Markup {
+
+    private static final int TAG = 0;
+
+    private static final int FONT = 1;
+
+    private static final int STYLE = 2;
+
+    private static final int STRIKE = 3;
+
+    /** estimated length of open and close tags */
+    private static final int TAG_LENGTH = 40;
+
+    /** larger buffers are not kept by thread */
+    private static final int MAX_BUFFER_CAPACITY = 8192;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>() {
+
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(256);
+        }
+    };
+
+    private final String text;
+
+    private int[] kinds = new int[4];
+
+    private String[] names = new String[4];
+
+    private int[] sizes = new int[4];
+
+    private boolean[] trueTypes = new boolean[4];
+
+    private int count;
+
+    private boolean escaped;
+
+    private Markup(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Builder of markup of text, null is written as empty text.
+     *
+     * @param text
+     *            wrapped text
+     * @return builder
+     */
+    public static Markup of(Object text) {
+        return new Markup(RU.nn(text));
+    }
+
+    /**
+     * XML special characters of text are escaped, tags are not affected.
+     */
+    public Markup escaped() {
+        this.escaped = true;
+        return this;
+    }
+
+    public Markup bold() {
+        return this.add(TAG, "b", 0, false);
+    }
+
+    public Markup italic() {
+        return this.add(TAG, "i", 0, false);
+    }
+
+    public Markup underline() {
+        return this.add(TAG, "u", 0, false);
+    }
+
+    public Markup sup() {
+        return this.add(TAG, "sup", 0, false);
+    }
+
+    public Markup sub() {
+        return this.add(TAG, "sub", 0, false);
+    }
+
+    public Markup strike() {
+        return this.add(STRIKE, null, 0, false);
+    }
+
+    /**
+     * Wraps markup by tag of name.
+     */
+    public Markup tag(String name) {
+        return this.add(TAG, name, 0, false);
+    }
+
+    /**
+     * Wraps markup by font of color, e.g. <code>red</code> or <code>#D16B1B</code>.
+     */
+    public Markup color(String color) {
+        return this.add(FONT, color, 0, false);
+    }
+
+    /**
+     * Wraps markup by style of TrueType PDF font.
+     *
+     * @param pdfFontName
+     *            font file name without extension, null is ignored
+     * @param size
+     *            font size, ignored when not positive
+     */
+    public Markup font(String pdfFontName, int size) {
+        return this.font(pdfFontName, size, true);
+    }
+
+    /**
+     * Wraps markup by style of PDF font.
+     *
+     * @param pdfFontName
+     *            font file name without extension, null is ignored
+     * @param size
+     *            font size, ignored when not positive
+     * @param trueType
+     *            <code>ttf</code> or <code>otf</code> font
+     */
+    public Markup font(String pdfFontName, int size, boolean trueType) {
+        return pdfFontName == null ? this : this.add(STYLE, pdfFontName, size, trueType);
+    }
+
+    private Markup add(int kind, String name, int size, boolean trueType) {
+
+        if (this.count == this.kinds.length) {
+            int capacity = this.count * 2;
+            this.kinds = Arrays.copyOf(this.kinds, capacity);
+            this.names = Arrays.copyOf(this.names, capacity);
+            this.sizes = Arrays.copyOf(this.sizes, capacity);
+            this.trueTypes = Arrays.copyOf(this.trueTypes, capacity);
+        }
+
+        this.kinds[this.count] = kind;
+        this.names[this.count] = name;
+        this.sizes[this.count] = size;
+        this.trueTypes[this.count] = trueType;
+        this.count++;
+
+        return this;
+    }
+
+    /**
+     * Writes markup to buffer of current thread.
+     */
+    @Override
+    public String toString() {
+
+        StringBuilder buffer = buffer(this.text.length() + this.count * TAG_LENGTH);
+
+        for (int i = this.count - 1; i >= 0; i--) {
+            open(buffer, this.kinds[i], this.names[i], this.sizes[i], this.trueTypes[i]);
+        }
+        text(buffer, this.text, this.escaped);
+        for (int i = 0; i < this.count; i++) {
+            close(buffer, this.kinds[i], this.names[i]);
+        }
+
+        return release(buffer);
+    }
+
+    /**
+     * Text wrapped by tag of name, same as <code>"&lt;" + name + "&gt;" + text + "&lt;/" + name + "&gt;"</code>.
+     */
+    static String tag(String name, String text, boolean escape) {
+        StringBuilder buffer = buffer(text.length() + TAG_LENGTH);
+        open(buffer, TAG, name, 0, false);
+        text(buffer, text, escape);
+        close(buffer, TAG, name);
+        return release(buffer);
+    }
+
+    /**
+     * Text wrapped by font of color.
+     */
+    static String font(String color, String text, boolean escape) {
+        StringBuilder buffer = buffer(text.length() + TAG_LENGTH);
+        open(buffer, FONT, color, 0, false);
+        text(buffer, text, escape);
+        close(buffer, FONT, color);
+        return release(buffer);
+    }
+
+    /**
+     * Text wrapped by style of PDF font.
+     */
+    static String style(String pdfFontName, String text, int size, boolean trueType, boolean escape) {
+        return style(pdfFontName, MarkupTags.REGULAR, text, size, trueType, escape);
+    }
+
+    /**
+     * Text wrapped by style of variant of PDF font, e.g. <code>arialbd.ttf</code> for {@link MarkupTags#BOLD}.
+     */
+    static String style(String pdfFontName, int variant, String text, int size, boolean trueType, boolean escape) {
+        StringBuilder buffer = buffer(text.length() + TAG_LENGTH);
+        buffer.append(MarkupTags.style(pdfFontName, variant, size, trueType));
+        text(buffer, text, escape);
+        buffer.append("</style>");
+        return release(buffer);
+    }
+
+    /**
+     * Text wrapped by style, struck through when striked.
+     */
+    static String strike(String text, boolean striked, boolean addSpaces, boolean escape) {
+        StringBuilder buffer = buffer(text.length() + TAG_LENGTH);
+        buffer.append(striked ? "<style isStrikeThrough=\"true\">" : "<style>");
+        if (addSpaces) {
+            buffer.append(' ');
+            text(buffer, text, escape);
+            buffer.append(' ');
+        } else {
+            text(buffer, text, escape);
+        }
+        buffer.append("</style>");
+        return release(buffer);
+    }
+
+    /**
+     * Text with XML special characters escaped, the same instance when there is nothing to escape.
+     */
+    static String escape(String text) {
+        int first = firstSpecial(text, 0);
+        if (first < 0) {
+            return text;
+        }
+        StringBuilder buffer = buffer(text.length() + TAG_LENGTH);
+        buffer.append(text, 0, first);
+        escape(buffer, text, first);
+        return release(buffer);
+    }
+
+    private static void text(StringBuilder buffer, String text, boolean escape) {
+        if (escape) {
+            escape(buffer, text, 0);
+        } else {
+            buffer.append(text);
+        }
+    }
+
+    /**
+     * Copies text from index to buffer in one pass, runs without special characters are copied at once.
+     */
+    private static void escape(StringBuilder buffer, String text, int from) {
+        int start = from;
+        for (int i = firstSpecial(text, from); i >= 0; i = firstSpecial(text, start)) {
+            buffer.append(text, start, i);
+            switch (text.charAt(i)) {
+            case '&':
+                buffer.append("&amp;");
+                break;
+            case '<':
+                buffer.append("&lt;");
+                break;
+            case '>':
+                buffer.append("&gt;");
+                break;
+            default:
+                buffer.append("&quot;");
+                break;
+            }
+            start = i + 1;
+        }
+        buffer.append(text, start, text.length());
+    }
+
+    private static int firstSpecial(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '&' || c == '<' || c == '>' || c == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void open(StringBuilder buffer, int kind, String name, int size, boolean trueType) {
+        switch (kind) {
+        case TAG:
+            buffer.append('<').append(name).append('>');
+            break;
+        case FONT:
+            buffer.append(MarkupTags.color(name));
+            break;
+        case STYLE:
+            buffer.append(MarkupTags.style(name, MarkupTags.REGULAR, size, trueType));
+            break;
+        default:
+            buffer.append("<style isStrikeThrough=\"true\">");
+            break;
+        }
+    }
+
+    private static void close(StringBuilder buffer, int kind, String name) {
+        switch (kind) {
+        case TAG:
+            buffer.append("</").append(name).append('>');
+            break;
+        case FONT:
+            buffer.append("</font>");
+            break;
+        default:
+            buffer.append("</style>");
+            break;
+        }
+    }
+
+    private static StringBuilder buffer(int length) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(length);
+        return buffer;
+    }
+
+    private static String release(StringBuilder buffer) {
+        String markup = buffer.toString();
+        if (buffer.capacity() > MAX_BUFFER_CAPACITY) {
+            BUFFER.set(new StringBuilder(256));
+        }
+        return markup;
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed open tags of styled text used by {@link Markup}, fonts and colors of reports come from small set.
+ * <p>
+ * Style tags are kept by font, variant, size and font type, color tags by color. Tags of sizes above
+ * {@link #MAX_CACHED_SIZE} and of fonts or colors above {@link #MAX_ENTRIES} are created for each call.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 19:46:02
+ */
+final class MarkupTags {
+
+    static final int REGULAR = 0;
+
+    static final int BOLD = 1;
+
+    static final int ITALIC = 2;
+
+    static final int BOLD_ITALIC = 3;
+
+    /** suffixes of font file names of variants */
+    private static final String[] VARIANTS = { "", "bd", "i", "bi" };
+
+    static final int MAX_CACHED_SIZE = 72;
+
+    static final int MAX_ENTRIES = 256;
+
+    private static final ConcurrentHashMap<String, String[][][]> STYLES = new ConcurrentHashMap<String, String[][][]>();
+
+    private static final ConcurrentHashMap<String, String> COLORS = new ConcurrentHashMap<String, String>();
+
+    private MarkupTags() {
+    }
+
+    /**
+     * Open tag of style, e.g. <code>&lt;style pdfFontName="helveticabd.ttf" size="9"&gt;</code>.
+     *
+     * @param pdfFontName
+     *            font file name without extension and variant suffix
+     * @param variant
+     *            {@link #REGULAR}, {@link #BOLD}, {@link #ITALIC} or {@link #BOLD_ITALIC}
+     * @param size
+     *            font size, not written when not positive
+     * @param trueType
+     *            <code>ttf</code> or <code>otf</code> font
+     * @return open tag
+     */
+    static String style(String pdfFontName, int variant, int size, boolean trueType) {
+
+        int index = size > 0 ? size : 0;
+        if (index > MAX_CACHED_SIZE) {
+            return createStyle(pdfFontName, variant, size, trueType);
+        }
+
+        String[][][] tags = STYLES.get(pdfFontName);
+        if (tags == null) {
+            if (STYLES.size() >= MAX_ENTRIES) {
+                return createStyle(pdfFontName, variant, size, trueType);
+            }
+            tags = new String[VARIANTS.length][2][MAX_CACHED_SIZE + 1];
+            String[][][] previous = STYLES.putIfAbsent(pdfFontName, tags);
+            if (previous != null) {
+                tags = previous;
+            }
+        }
+
+        String[] sizes = tags[variant][trueType ? 0 : 1];
+        String tag = sizes[index];
+        if (tag == null) {
+            // racy initialization, tags are equal immutable strings
+            tag = createStyle(pdfFontName, variant, size, trueType);
+            sizes[index] = tag;
+        }
+
+        return tag;
+    }
+
+    private static String createStyle(String pdfFontName, int variant, int size, boolean trueType) {
+        String fileName = (pdfFontName + VARIANTS[variant]).toLowerCase();
+        return "<style pdfFontName=\"" + fileName + (trueType ? ".ttf\"" : ".otf\"")
+                + (size > 0 ? " size=\"" + size + "\"" : "") + ">";
+    }
+
+    /**
+     * Open tag of font color, e.g. <code>&lt;font color="red"&gt;</code>.
+     *
+     * @param color
+     *            color name or hex value
+     * @return open tag
+     */
+    static String color(String color) {
+
+        if (color == null) {
+            return "<font color=\"null\">";
+        }
+
+        String tag = COLORS.get(color);
+        if (tag == null) {
+            tag = "<font color=\"" + color + "\">";
+            if (COLORS.size() < MAX_ENTRIES) {
+                COLORS.putIfAbsent(color, tag);
+            }
+        }
+
+        return tag;
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import com.google.zxing.common.BitMatrix;
+
+/**
+ * Writes {@link BitMatrix} as indexed 1-bit PNG directly from matrix rows.
+ * <p>
+ * Unlike {@link com.google.zxing.client.j2se.MatrixToImageWriter} no intermediate
+ * {@link java.awt.image.BufferedImage} is created and ImageIO is not involved, palette consists of two colors only.
+ * Colors are opaque RGB as in {@link com.google.zxing.client.j2se.MatrixToImageWriter}, alpha byte is ignored.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 10:05:18
+ */
+public final class MatrixToPngWriter {
+
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    private static final byte[] IHDR = { 'I', 'H', 'D', 'R' };
+
+    private static final byte[] PLTE = { 'P', 'L', 'T', 'E' };
+
+    private static final byte[] IDAT = { 'I', 'D', 'A', 'T' };
+
+    private static final byte[] IEND = { 'I', 'E', 'N', 'D' };
+
+    private static final int IDAT_SIZE = 8192;
+
+    private static final int BIT_DEPTH = 1;
+
+    private static final int COLOR_TYPE_INDEXED = 3;
+
+    private MatrixToPngWriter() {
+    }
+
+    /**
+     * Writes matrix as PNG image, set bits are drawn by onColor.
+     *
+     * @param matrix
+     *            the matrix to write
+     * @param onColor
+     *            RGB color of set bits
+     * @param offColor
+     *            RGB color of unset bits
+     * @param stream
+     *            the {@link OutputStream} to write PNG to
+     * @throws IOException
+     *             if writing to stream fails
+     */
+    public static void writeToStream(BitMatrix matrix, int onColor, int offColor, OutputStream stream)
+            throws IOException {
+
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        CRC32 crc = new CRC32();
+
+        stream.write(SIGNATURE);
+
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = BIT_DEPTH;
+        header[9] = COLOR_TYPE_INDEXED;
+        writeChunk(stream, crc, IHDR, header, header.length);
+
+        // palette index 0 = offColor, 1 = onColor
+        byte[] palette = { (byte) (offColor >> 16), (byte) (offColor >> 8), (byte) offColor, (byte) (onColor >> 16),
+                (byte) (onColor >> 8), (byte) onColor };
+        writeChunk(stream, crc, PLTE, palette, palette.length);
+
+        byte[] row = new byte[1 + (width + 7) / 8];
+        byte[] data = new byte[IDAT_SIZE];
+        int length = 0;
+
+        Deflater deflater = new Deflater();
+        try {
+            for (int y = 0; y < height; y++) {
+
+                // filter type None, then packed pixels from the most significant bit
+                Arrays.fill(row, (byte) 0);
+                for (int x = 0; x < width; x++) {
+                    if (matrix.get(x, y)) {
+                        row[1 + (x >> 3)] |= 0x80 >>> (x & 7);
+                    }
+                }
+
+                deflater.setInput(row);
+                while (!deflater.needsInput()) {
+                    length += deflater.deflate(data, length, data.length - length);
+                    if (length == data.length) {
+                        writeChunk(stream, crc, IDAT, data, length);
+                        length = 0;
+                    }
+                }
+            }
+
+            deflater.finish();
+            while (!deflater.finished()) {
+                length += deflater.deflate(data, length, data.length - length);
+                if (length == data.length) {
+                    writeChunk(stream, crc, IDAT, data, length);
+                    length = 0;
+                }
+            }
+
+            if (length > 0) {
+                writeChunk(stream, crc, IDAT, data, length);
+            }
+
+        } finally {
+            deflater.end();
+        }
+
+        writeChunk(stream, crc, IEND, data, 0);
+    }
+
+    private static void writeChunk(OutputStream stream, CRC32 crc, byte[] type, byte[] data, int length)
+            throws IOException {
+
+        byte[] number = new byte[4];
+        putInt(number, 0, length);
+        stream.write(number);
+        stream.write(type);
+        stream.write(data, 0, length);
+
+        crc.reset();
+        crc.update(type);
+        crc.update(data, 0, length);
+        putInt(number, 0, (int) crc.getValue());
+        stream.write(number);
+    }
+
+    private static void putInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+}
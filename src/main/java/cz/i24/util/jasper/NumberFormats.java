@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Registry of number formats keyed by mask and locale, used by {@link RU#formatNumber(double, String, double)}.
+ * <p>
+ * Formats are configured once (space as grouping separator, pattern applied) and cached per thread together with
+ * rounding factor of mask. Returned formats are shared, they must not be modified by caller.
+ * <p>
+ * Built-in masks {@link RU#NUMBER_FORMAT} and {@link RU#DECIMAL_FORMAT} are formatted by specialized code writing
+ * digits directly into buffer of thread, output is identical to {@link DecimalFormat}.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 13:44:09
+ */
+public final class NumberFormats {
+
+    /** maximum number of cached formats per thread */
+    private static final int MAX_FORMATS = 64;
+
+    public static final char GROUPING_SEPARATOR = ' ';
+
+    /** fast path is used for absolute unscaled values lower than limit */
+    private static final long FAST_LIMIT = 1000000000000000L;
+
+    private static final int NO_FAST_PATH = -1;
+
+    private static final ThreadLocal<Map<String, Entry>> FORMATS = new ThreadLocal<Map<String, Entry>>() {
+
+        @Override
+        protected Map<String, Entry> initialValue() {
+            return new HashMap<String, Entry>();
+        }
+    };
+
+    private NumberFormats() {
+    }
+
+    /**
+     * Format of mask with locale and space as grouping separator.
+     *
+     * @param mask
+     *            pattern of {@link DecimalFormat}
+     * @param locale
+     *            locale of symbols
+     * @return shared format of current thread
+     */
+    public static DecimalFormat get(String mask, Locale locale) {
+        return entry(mask, locale).format;
+    }
+
+    /**
+     * Formats value by mask, value is rounded to decimal places of mask first or to multiple of negative round.
+     *
+     * @param value
+     *            value to format
+     * @param mask
+     *            pattern of {@link DecimalFormat}
+     * @param round
+     *            negative value rounds to its multiple
+     * @param locale
+     *            locale of symbols
+     * @return formatted value
+     */
+    public static String format(double value, String mask, double round, Locale locale) {
+
+        Entry entry = entry(mask, locale);
+
+        if (entry.fastScale == 2 && round >= 0) {
+            // same as value rounded to cents formatted by DecimalFormat
+            long cents = Math.round(value * 100);
+            if (cents > -FAST_LIMIT && cents < FAST_LIMIT) {
+                return formatFast(entry, cents, cents < 0);
+            }
+        }
+
+        if (round < 0) {
+            value = Math.round(value / round) * round;
+        } else if (entry.rounding > 0) {
+            value = Math.round(value * entry.rounding) / entry.rounding;
+        }
+
+        if (entry.fastScale == 0 && Math.abs(value) < FAST_LIMIT) {
+            // half-even as DecimalFormat, sign of negative zero kept
+            return formatFast(entry, (long) Math.rint(value), value < 0 || value == 0 && 1 / value < 0);
+        }
+
+        return entry.format.format(value);
+    }
+
+    /**
+     * Formats value by mask without conversion to double, value is rounded half up to decimal places of mask first.
+     *
+     * @param value
+     *            value to format
+     * @param mask
+     *            pattern of {@link DecimalFormat}
+     * @param locale
+     *            locale of symbols
+     * @return formatted value
+     */
+    public static String format(BigDecimal value, String mask, Locale locale) {
+
+        Entry entry = entry(mask, locale);
+
+        if (entry.scale > 0) {
+            value = value.setScale(entry.scale, RoundingMode.HALF_UP);
+        }
+
+        if (entry.fastScale >= 0) {
+            // DecimalFormat rounds half even
+            BigInteger unscaled = value.setScale(entry.fastScale, RoundingMode.HALF_EVEN).unscaledValue();
+            if (unscaled.bitLength() < Long.SIZE) {
+                long number = unscaled.longValue();
+                if (number > -FAST_LIMIT && number < FAST_LIMIT) {
+                    return formatFast(entry, number, value.signum() < 0);
+                }
+            }
+        }
+
+        return entry.format.format(value);
+    }
+
+    /**
+     * Formats integral value by mask without conversion to double.
+     *
+     * @param value
+     *            value to format
+     * @param mask
+     *            pattern of {@link DecimalFormat}
+     * @param locale
+     *            locale of symbols
+     * @return formatted value
+     */
+    public static String format(long value, String mask, Locale locale) {
+
+        Entry entry = entry(mask, locale);
+
+        if (entry.fastScale >= 0 && value > -FAST_LIMIT / 100 && value < FAST_LIMIT / 100) {
+            long unscaled = value;
+            for (int i = 0; i < entry.fastScale; i++) {
+                unscaled *= 10;
+            }
+            return formatFast(entry, unscaled, value < 0);
+        }
+
+        return entry.format.format(value);
+    }
+
+    /**
+     * Writes unscaled value with scale of entry to buffer, groups of three digits are separated.
+     */
+    private static String formatFast(Entry entry, long unscaled, boolean negative) {
+
+        char[] buffer = entry.buffer;
+        int position = buffer.length;
+        long number = Math.abs(unscaled);
+
+        if (entry.fastScale > 0) {
+            for (int i = 0; i < entry.fastScale; i++) {
+                buffer[--position] = (char) ('0' + number % 10);
+                number /= 10;
+            }
+            buffer[--position] = entry.decimalSeparator;
+        }
+
+        int digits = 0;
+        do {
+            if (digits > 0 && digits % 3 == 0) {
+                buffer[--position] = GROUPING_SEPARATOR;
+            }
+            buffer[--position] = (char) ('0' + number % 10);
+            number /= 10;
+            digits++;
+        } while (number > 0);
+
+        if (negative) {
+            buffer[--position] = entry.minusSign;
+        }
+
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    private static int fastScale(String mask, DecimalFormat format, DecimalFormatSymbols symbols) {
+        if (symbols.getZeroDigit() != '0') {
+            return NO_FAST_PATH;
+        }
+        // fast path writes minus sign only, e.g. Hebrew prefix starts with left-to-right mark
+        if (!format.getNegativePrefix().equals(String.valueOf(symbols.getMinusSign()))
+                || !format.getPositivePrefix().isEmpty() || !format.getNegativeSuffix().isEmpty()
+                || !format.getPositiveSuffix().isEmpty()) {
+            return NO_FAST_PATH;
+        }
+        if (RU.NUMBER_FORMAT.equals(mask)) {
+            return 2;
+        }
+        if (RU.DECIMAL_FORMAT.equals(mask)) {
+            return 0;
+        }
+        return NO_FAST_PATH;
+    }
+
+    /**
+     * Decimal places of mask, number of digits (<code>0</code> or <code>#</code>) following last dot, suffix of mask
+     * (e.g. currency) is not counted.
+     *
+     * @param mask
+     *            pattern of {@link DecimalFormat}
+     * @return decimal places
+     */
+    static int scale(String mask) {
+        int dot = mask.lastIndexOf('.');
+        if (dot <= 0) {
+            return 0;
+        }
+        int end = dot + 1;
+        while (end < mask.length() && (mask.charAt(end) == '0' || mask.charAt(end) == '#')) {
+            end++;
+        }
+        return end - dot - 1;
+    }
+
+    /**
+     * Decimal places of rounding of double values, number of characters after last dot as always rounded by
+     * {@link RU#formatNumber(double, String, double)}.
+     *
+     * @param mask
+     *            pattern of {@link DecimalFormat}
+     * @return decimal places
+     */
+    static int roundingScale(String mask) {
+        int dot = mask.lastIndexOf('.');
+        return dot > 0 ? mask.length() - dot - 1 : 0;
+    }
+
+    private static Entry entry(String mask, Locale locale) {
+
+        Map<String, Entry> formats = FORMATS.get();
+
+        Entry first = formats.get(mask);
+        for (Entry entry = first; entry != null; entry = entry.next) {
+            if (entry.locale.equals(locale)) {
+                return entry;
+            }
+        }
+
+        if (formats.size() >= MAX_FORMATS) {
+            formats.clear();
+            first = null;
+        }
+
+        DecimalFormat format = (DecimalFormat) NumberFormat.getInstance(locale);
+        DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+        symbols.setGroupingSeparator(GROUPING_SEPARATOR);
+        format.setDecimalFormatSymbols(symbols);
+        format.applyPattern(mask);
+
+        Entry entry = new Entry(locale, format, scale(mask), roundingScale(mask), fastScale(mask, format, symbols),
+                symbols.getDecimalSeparator(), symbols.getMinusSign(), first);
+        formats.put(mask, entry);
+        return entry;
+    }
+
+    private static final class Entry {
+
+        private final Locale locale;
+
+        private final DecimalFormat format;
+
+        private final int scale;
+
+        private final double rounding;
+
+        /** decimal places of fast path or {@link NumberFormats#NO_FAST_PATH} */
+        private final int fastScale;
+
+        private final char decimalSeparator;
+
+        private final char minusSign;
+
+        /** confined to thread as entry itself */
+        private final char[] buffer = new char[32];
+
+        private final Entry next;
+
+        Entry(Locale locale, DecimalFormat format, int scale, int roundingScale, int fastScale, char decimalSeparator,
+                char minusSign, Entry next) {
+            this.locale = locale;
+            this.format = format;
+            this.scale = scale;
+            this.rounding = roundingScale > 0 ? Math.pow(10, roundingScale) : 0;
+            this.fastScale = fastScale;
+            this.decimalSeparator = decimalSeparator;
+            this.minusSign = minusSign;
+            this.next = next;
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+/**
+ * Paragraphs of text separated by <code>"\n\t"</code>, used by {@link RU#paragraph(String, int)}.
+ * <p>
+ * Text is split in one pass into presized buffer, separators of sizes up to {@link #MAX_CACHED_SIZE} are constants.
+ * Results of texts longer than {@link #MIN_CACHED_LENGTH} (e.g. terms and conditions printed on every page) are
+ * kept in {@link #getCache()}, lookup compares content of text.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 20:07:35
+ */
+public final class Paragraphs {
+
+    public static final String SEPARATOR = "\n\t";
+
+    public static final int MAX_CACHED_SIZE = 32;
+
+    public static final int MIN_CACHED_LENGTH = 256;
+
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    /** maximum total length of cached texts and their paragraphs */
+    public static final long DEFAULT_MAX_WEIGHT = 1024 * 1024;
+
+    private static final String[] SEPARATORS = new String[MAX_CACHED_SIZE + 1];
+
+    static {
+        for (int size = 0; size < SEPARATORS.length; size++) {
+            SEPARATORS[size] = createSeparator(size);
+        }
+    }
+
+    private static final LRUCache<Key, String> CACHE = new LRUCache<Key, String>(DEFAULT_MAX_ENTRIES,
+            DEFAULT_MAX_WEIGHT) {
+
+        @Override
+        protected long weigh(Key key, String value) {
+            return key.text.length() + value.length();
+        }
+    };
+
+    private Paragraphs() {
+    }
+
+    /**
+     * Cache of paragraphs of long texts.
+     */
+    public static LRUCache<Key, String> getCache() {
+        return CACHE;
+    }
+
+    /**
+     * White paragraph separator of font size.
+     *
+     * @param size
+     *            font size
+     * @return separator
+     */
+    public static String separator(int size) {
+        return size >= 0 && size <= MAX_CACHED_SIZE ? SEPARATORS[size] : createSeparator(size);
+    }
+
+    private static String createSeparator(int size) {
+        return "\n<font size=\"" + size + "\" color=\"white\">X</font>\n";
+    }
+
+    /**
+     * Each part of text split as by <code>text.split("\n\t")</code> followed by separator of size.
+     *
+     * @param text
+     *            text of paragraphs
+     * @param size
+     *            font size of separator
+     * @return paragraphs, empty string for null text
+     */
+    public static String format(String text, int size) {
+
+        if (text == null) {
+            return "";
+        }
+
+        if (text.length() < MIN_CACHED_LENGTH) {
+            return split(text, size);
+        }
+
+        Key key = new Key(text, size);
+        String paragraphs = CACHE.get(key);
+        if (paragraphs == null) {
+            paragraphs = split(text, size);
+            CACHE.put(key, paragraphs);
+        }
+
+        return paragraphs;
+    }
+
+    private static String split(String text, int size) {
+
+        String separator = separator(size);
+
+        int next = text.indexOf(SEPARATOR);
+        if (next < 0) {
+            return text.concat(separator);
+        }
+
+        // trailing empty parts are removed as by split
+        int end = text.length();
+        while (end >= SEPARATOR.length() && text.startsWith(SEPARATOR, end - SEPARATOR.length())) {
+            end -= SEPARATOR.length();
+        }
+        if (end == 0) {
+            return "";
+        }
+
+        int parts = 1;
+        for (int i = next; i >= 0 && i < end; i = text.indexOf(SEPARATOR, i + SEPARATOR.length())) {
+            parts++;
+        }
+
+        StringBuilder buffer = new StringBuilder(end + parts * separator.length());
+        int start = 0;
+        while (next >= 0 && next < end) {
+            buffer.append(text, start, next).append(separator);
+            start = next + SEPARATOR.length();
+            next = text.indexOf(SEPARATOR, start);
+        }
+        buffer.append(text, start, end).append(separator);
+
+        return buffer.toString();
+    }
+
+    /**
+     * Key of cached paragraphs, text and size of separator.
+     */
+    public static final class Key {
+
+        private final String text;
+
+        private final int size;
+
+        Key(String text, int size) {
+            this.text = text;
+            this.size = size;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.text.hashCode() * 31 + this.size;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.size == other.size && this.text.equals(other.text);
+        }
+    }
+
+}
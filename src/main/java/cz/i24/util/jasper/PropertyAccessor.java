@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.ref.SoftReference;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.beanutils.MethodUtils;
+import org.apache.commons.beanutils.PropertyUtils;
+
+/**
+ * Cached reader of bean property, getter is looked up once per class and property and invoked by
+ * {@link MethodHandle}.
+ * <p>
+ * Supports nested properties separated by dot (<code>team.name</code>) and {@link Map}s, indexed and mapped properties
+ * (<code>riders[0]</code>, <code>codes(key)</code>) are read by {@link PropertyUtils}. Property that can not be read
+ * has null value, same as in {@link RU#in(java.util.Collection, String, java.util.Collection)}.
+ * <p>
+ * Accessors are kept with bean class and reference it by their method handles. They are held softly, so they do
+ * not pin class loader of redeployed report classes, and are looked up again when cleared by garbage collector.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 17:12:44
+ */
+public final class PropertyAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<Accessors> ACCESSORS = new ClassValue<Accessors>() {
+
+        @Override
+        protected Accessors computeValue(Class<?> type) {
+            return new Accessors();
+        }
+    };
+
+    /** name of first property of path */
+    private final String name;
+
+    /** getter of property, null for maps and properties read by {@link PropertyUtils} */
+    private final MethodHandle getter;
+
+    private final boolean map;
+
+    /** rest of path read on value of property, null for last property */
+    private final String nested;
+
+    private PropertyAccessor(String name, MethodHandle getter, boolean map, String nested) {
+        this.name = name;
+        this.getter = getter;
+        this.map = map;
+        this.nested = nested;
+    }
+
+    /**
+     * Reads property of bean.
+     *
+     * @param bean
+     *            bean or {@link Map}
+     * @param property
+     *            property name, nested properties are separated by dot
+     * @return value of property or null if it can not be read
+     */
+    public static Object get(Object bean, String property) {
+
+        if (bean == null || property == null) {
+            return null;
+        }
+
+        return of(bean.getClass(), property).read(bean);
+    }
+
+    /**
+     * Returns cached accessor of property of class.
+     *
+     * @param type
+     *            class of beans
+     * @param property
+     *            property name, nested properties are separated by dot
+     * @return accessor
+     */
+    public static PropertyAccessor of(Class<?> type, String property) {
+
+        Map<String, PropertyAccessor> accessors = ACCESSORS.get(type).get();
+
+        PropertyAccessor accessor = accessors.get(property);
+        if (accessor == null) {
+            accessor = create(type, property);
+            accessors.put(property, accessor);
+        }
+
+        return accessor;
+    }
+
+    private static PropertyAccessor create(Class<?> type, String property) {
+
+        if (property.indexOf('[') >= 0 || property.indexOf('(') >= 0) {
+            return new PropertyAccessor(property, null, false, null);
+        }
+
+        int dot = property.indexOf('.');
+        String name = dot < 0 ? property : property.substring(0, dot);
+        String nested = dot < 0 ? null : property.substring(dot + 1);
+
+        if (Map.class.isAssignableFrom(type)) {
+            return new PropertyAccessor(name, null, true, nested);
+        }
+
+        return new PropertyAccessor(name, getter(type, name), false, nested);
+    }
+
+    private static MethodHandle getter(Class<?> type, String name) {
+
+        try {
+            for (PropertyDescriptor descriptor : Introspector.getBeanInfo(type).getPropertyDescriptors()) {
+                if (name.equals(descriptor.getName()) && descriptor.getReadMethod() != null) {
+                    Method method = MethodUtils.getAccessibleMethod(type, descriptor.getReadMethod());
+                    return method == null ? null : MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE);
+                }
+            }
+        } catch (IntrospectionException | IllegalAccessException e) {
+            return null;
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads property of bean of class of this accessor.
+     *
+     * @param bean
+     *            bean or {@link Map}
+     * @return value of property or null if it can not be read
+     */
+    public Object read(Object bean) {
+
+        Object value;
+        try {
+            if (this.getter != null) {
+                value = (Object) this.getter.invokeExact(bean);
+            } else if (this.map) {
+                value = ((Map<?, ?>) bean).get(this.name);
+            } else {
+                value = PropertyUtils.getProperty(bean, this.name);
+            }
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            return null;
+        }
+
+        return this.nested == null ? value : get(value, this.nested);
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyAccessor [name=" + this.name + ", nested=" + this.nested + "]";
+    }
+
+    /**
+     * Softly held accessors of class, value of class does not reference class strongly.
+     */
+    private static final class Accessors {
+
+        private volatile SoftReference<Map<String, PropertyAccessor>> reference =
+                new SoftReference<Map<String, PropertyAccessor>>(null);
+
+        Map<String, PropertyAccessor> get() {
+            Map<String, PropertyAccessor> accessors = this.reference.get();
+            if (accessors == null) {
+                // racy creation, accessors of lost map are created again
+                accessors = new ConcurrentHashMap<String, PropertyAccessor>();
+                this.reference = new SoftReference<Map<String, PropertyAccessor>>(accessors);
+            }
+            return accessors;
+        }
+    }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * QR code images of whole dataset rendered in parallel before report fill.
+ * <p>
+ * Fill thread then only looks images up by text, see {@link RU#qr(String, QRCodeBatch)}. Texts not rendered in
+ * advance (including null) are served by bounded {@link QRCodeCache#getInstance()}, batch itself does not grow.
+ * 
+ * <pre>
+ * QRCodeStyle style = RU.qrStyle(125, QRCodeColored.BLACK, QRCodeColored.WHITE);
+ * parameters.put(&quot;QR_BATCH&quot;, QRCodeBatch.prerender(riders, &quot;payment&quot;, style));
+ * ...
+ * RU.qr($F{payment}, $P{QR_BATCH})
+ * </pre>
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 12:40:17
+ */
+public final class QRCodeBatch {
+
+    /** number of tasks per thread, balances uneven text lengths */
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final QRCodeStyle style;
+
+    private final ConcurrentHashMap<String, byte[]> images;
+
+    private QRCodeBatch(QRCodeStyle style, int size) {
+        this.style = style;
+        this.images = new ConcurrentHashMap<String, byte[]>(Math.max(16, size * 4 / 3 + 1));
+    }
+
+    /**
+     * Renders QR codes of texts on temporary {@link ForkJoinPool} with parallelism of available processors.
+     *
+     * @param texts
+     *            texts to encode, blank texts are skipped
+     * @param style
+     *            rendering template
+     * @return rendered images
+     */
+    public static QRCodeBatch prerender(Collection<String> texts, QRCodeStyle style) {
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            return prerender(texts, style, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Renders QR codes of texts on supplied executor.
+     *
+     * @param texts
+     *            texts to encode, blank texts are skipped
+     * @param style
+     *            rendering template
+     * @param executor
+     *            executor running rendering, it is not shut down
+     * @return rendered images
+     */
+    public static QRCodeBatch prerender(Collection<String> texts, QRCodeStyle style, ExecutorService executor) {
+
+        Set<String> distinct = new LinkedHashSet<String>();
+        if (texts != null) {
+            for (String text : texts) {
+                if (!RU.isBlank(text)) {
+                    distinct.add(text);
+                }
+            }
+        }
+
+        final QRCodeBatch batch = new QRCodeBatch(style, distinct.size());
+        final String[] values = distinct.toArray(new String[distinct.size()]);
+        if (values.length == 0) {
+            return batch;
+        }
+
+        int tasks = Math.min(values.length, Runtime.getRuntime().availableProcessors() * TASKS_PER_THREAD);
+        int chunk = (values.length + tasks - 1) / tasks;
+
+        List<Callable<Void>> callables = new ArrayList<Callable<Void>>(tasks);
+        for (int start = 0; start < values.length; start += chunk) {
+            final int from = start;
+            final int to = Math.min(values.length, start + chunk);
+            callables.add(new Callable<Void>() {
+
+                @Override
+                public Void call() {
+                    for (int i = from; i < to; i++) {
+                        batch.images.put(values[i], batch.style.bytes(values[i]));
+                    }
+                    return null;
+                }
+            });
+        }
+
+        try {
+            for (Future<Void> future : executor.invokeAll(callables)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("QRCode batch interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("QRCode genertate", e.getCause());
+        }
+
+        return batch;
+    }
+
+    /**
+     * Renders QR codes of property values of beans (or JSON nodes) on temporary {@link ForkJoinPool}.
+     *
+     * @param objects
+     *            beans or {@link JsonNode}s
+     * @param property
+     *            property name or JSON path of text
+     * @param style
+     *            rendering template
+     * @return rendered images
+     */
+    @SuppressWarnings("rawtypes")
+    public static QRCodeBatch prerender(Collection objects, String property, QRCodeStyle style) {
+        return prerender(texts(objects, property), style);
+    }
+
+    /**
+     * Renders QR codes of property values of beans (or JSON nodes) on supplied executor.
+     *
+     * @param objects
+     *            beans or {@link JsonNode}s
+     * @param property
+     *            property name or JSON path of text
+     * @param style
+     *            rendering template
+     * @param executor
+     *            executor running rendering, it is not shut down
+     * @return rendered images
+     */
+    @SuppressWarnings("rawtypes")
+    public static QRCodeBatch prerender(Collection objects, String property, QRCodeStyle style,
+            ExecutorService executor) {
+        return prerender(texts(objects, property), style, executor);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static List<String> texts(Collection objects, String property) {
+
+        List<String> texts = new ArrayList<String>(objects == null ? 0 : objects.size());
+        if (objects == null) {
+            return texts;
+        }
+
+        for (Object obj : objects) {
+            Object value = RU.property(obj, property);
+            if (value != null) {
+                texts.add(value.toString());
+            }
+        }
+
+        return texts;
+    }
+
+    /**
+     * Returns image of text, image of text not rendered in advance is taken from {@link QRCodeCache#getInstance()}.
+     *
+     * @param text
+     *            the text to encode
+     * @return encoded image (shared, must not be modified)
+     */
+    public byte[] bytes(String text) {
+        byte[] data = text == null ? null : this.images.get(text);
+        if (data == null) {
+            data = QRCodeCache.getInstance().bytes(text, this.style);
+        }
+        return data;
+    }
+
+    /**
+     * Returns new stream over image of text.
+     *
+     * @param text
+     *            the text to encode
+     * @return image as stream
+     */
+    public InputStream stream(String text) {
+        return new ByteArrayInputStream(this.bytes(text));
+    }
+
+    public boolean contains(String text) {
+        return text != null && this.images.containsKey(text);
+    }
+
+    public int size() {
+        return this.images.size();
+    }
+
+    public QRCodeStyle getStyle() {
+        return this.style;
+    }
+
+}
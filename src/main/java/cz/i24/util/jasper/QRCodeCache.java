@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.zxing.EncodeHintType;
+
+/**
+ * Content-addressed cache of rendered QR code images.
+ * <p>
+ * Images are keyed by text, size, colors, image type and encoding hints (error correction included), so repeated
+ * rendering of the same QR code returns shared bytes without encoding it again.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 09:34:05
+ */
+public class QRCodeCache extends LRUCache<QRCodeCache.Key, byte[]> {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+    private static final QRCodeCache INSTANCE = new QRCodeCache(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+
+    public QRCodeCache(int maxEntries, long maxBytes) {
+        super(maxEntries, maxBytes);
+    }
+
+    /**
+     * Shared cache used by {@link RU#qr(String, int, int, int)}.
+     *
+     * @return default cache
+     */
+    public static QRCodeCache getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    protected long weigh(byte[] value) {
+        return value.length;
+    }
+
+    /**
+     * Returns encoded image of QR code, renders it only when not cached yet.
+     *
+     * @param qrCode
+     *            QR code definition
+     * @return encoded image (shared, must not be modified)
+     */
+    public byte[] bytes(QRCodeColored qrCode) {
+        Key key = new Key(qrCode.getText(), qrCode.getWidth(), qrCode.getHeight(), qrCode.getOnColor(),
+                qrCode.getOffColor(), qrCode.getImageType(), qrCode.getHints());
+
+        byte[] data = this.get(key);
+        if (data == null) {
+            data = qrCode.stream().toByteArray();
+            this.put(key, data);
+        }
+        return data;
+    }
+
+    /**
+     * Returns encoded image of text rendered by style, renders it only when not cached yet.
+     *
+     * @param text
+     *            the text to encode
+     * @param style
+     *            rendering template
+     * @return encoded image (shared, must not be modified)
+     */
+    public byte[] bytes(String text, QRCodeStyle style) {
+        Key key = new Key(text, style.getWidth(), style.getHeight(), style.getOnColor(), style.getOffColor(),
+                style.getImageType(), style.getHints(), false);
+
+        byte[] data = this.get(key);
+        if (data == null) {
+            data = style.bytes(text);
+            this.put(key, data);
+        }
+        return data;
+    }
+
+    /**
+     * Returns new stream over cached image of QR code.
+     *
+     * @param qrCode
+     *            QR code definition
+     * @return image as stream
+     */
+    public InputStream stream(QRCodeColored qrCode) {
+        return new ByteArrayInputStream(this.bytes(qrCode));
+    }
+
+    /**
+     * Returns new stream over cached image of text rendered by style.
+     *
+     * @param text
+     *            the text to encode
+     * @param style
+     *            rendering template
+     * @return image as stream
+     */
+    public InputStream stream(String text, QRCodeStyle style) {
+        return new ByteArrayInputStream(this.bytes(text, style));
+    }
+
+    /**
+     * Immutable key of rendered QR code.
+     */
+    public static final class Key {
+
+        private final String text;
+
+        private final int width;
+
+        private final int height;
+
+        private final int onColor;
+
+        private final int offColor;
+
+        private final String imageType;
+
+        private final Map<EncodeHintType, Object> hints;
+
+        private final int hash;
+
+        public Key(String text, int width, int height, int onColor, int offColor, String imageType,
+                Map<EncodeHintType, ?> hints) {
+            this(text, width, height, onColor, offColor, imageType, hints, true);
+        }
+
+        @SuppressWarnings("unchecked")
+        Key(String text, int width, int height, int onColor, int offColor, String imageType,
+                Map<EncodeHintType, ?> hints, boolean copyHints) {
+            this.text = text;
+            this.width = width;
+            this.height = height;
+            this.onColor = onColor;
+            this.offColor = offColor;
+            this.imageType = imageType;
+            if (hints == null) {
+                this.hints = new HashMap<EncodeHintType, Object>();
+            } else {
+                // immutable hints (e.g. of QRCodeStyle) are shared
+                this.hints = copyHints ? new HashMap<EncodeHintType, Object>(hints)
+                        : (Map<EncodeHintType, Object>) hints;
+            }
+
+            int h = text == null ? 0 : text.hashCode();
+            h = 31 * h + width;
+            h = 31 * h + height;
+            h = 31 * h + onColor;
+            h = 31 * h + offColor;
+            h = 31 * h + (imageType == null ? 0 : imageType.hashCode());
+            h = 31 * h + this.hints.hashCode();
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.hash == other.hash && this.width == other.width && this.height == other.height
+                    && this.onColor == other.onColor && this.offColor == other.offColor
+                    && equal(this.text, other.text) && equal(this.imageType, other.imageType)
+                    && this.hints.equals(other.hints);
+        }
+
+        private static boolean equal(Object one, Object second) {
+            return one == null ? second == null : one.equals(second);
+        }
+
+        @Override
+        public String toString() {
+            return "Key [text=" + this.text + ", width=" + this.width + ", height=" + this.height + ", imageType="
+                    + this.imageType + "]";
+        }
+
+    }
+
+}
@@ -11,13 +11,13 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.HashMap;
 
+import net.sf.jasperreports.engine.Renderable;
+
 import com.google.zxing.EncodeHintType;
-import com.google.zxing.Writer;
 import com.google.zxing.WriterException;
 import com.google.zxing.client.j2se.MatrixToImageConfig;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 
 /**
@@ -39,9 +39,10 @@ public class QRCodeColored {
 
     public static final String PNG = "PNG";
 
-    private final HashMap<EncodeHintType, Object> hints = new HashMap<EncodeHintType, Object>();
+    /** vector output, see {@link #vector()} */
+    public static final String SVG = "SVG";
 
-    private Writer qrWriter = new QRCodeWriter();
+    private final HashMap<EncodeHintType, Object> hints = new HashMap<EncodeHintType, Object>();
 
     private int width = 125;
 
@@ -110,14 +111,78 @@ public class QRCodeColored {
         return this;
     }
 
-    private BitMatrix createMatrix() throws WriterException {
-        return this.qrWriter.encode(this.text, com.google.zxing.BarcodeFormat.QR_CODE, this.width, this.height,
-                this.hints);
+    /**
+     * Overrides the quiet zone from its default 4 modules by supplying a {@link EncodeHintType#MARGIN} hint
+     *
+     * @param margin
+     *            quiet zone in modules
+     * @return the current QRCode object
+     */
+    public QRCodeColored withMargin(int margin) {
+        return this.withHint(EncodeHintType.MARGIN, margin);
+    }
+
+    /**
+     * returns encoded modules of the QR code, shared by all sizes and colors of the same text
+     *
+     * @return qrcode modules
+     * @throws WriterException
+     *             if text can not be encoded
+     */
+    public QRCodeMatrix matrix() throws WriterException {
+        return QRCodeMatrix.of(this.text, this.hints);
     }
 
     private void writeToStream(OutputStream stream) throws IOException, WriterException {
-        MatrixToImageWriter.writeToStream(this.createMatrix(), this.imageType, stream, new MatrixToImageConfig(
-                this.onColor, this.offColor));
+        writeToStream(this.matrix(), this.width, this.height, QRCodeMatrix.quietZone(this.hints), this.onColor,
+                this.offColor, this.imageType, stream);
+    }
+
+    static void writeToStream(QRCodeMatrix matrix, int width, int height, int quietZone, int onColor, int offColor,
+            String imageType, OutputStream stream) throws IOException {
+
+        if (SVG.equalsIgnoreCase(imageType)) {
+            createVector(matrix, quietZone, onColor, offColor).writeSvg(width, height, stream);
+            return;
+        }
+
+        BitMatrix bitMatrix = matrix.toBitMatrix(width, height, quietZone);
+        if (PNG.equalsIgnoreCase(imageType)) {
+            MatrixToPngWriter.writeToStream(bitMatrix, onColor, offColor, stream);
+            return;
+        }
+        MatrixToImageWriter.writeToStream(bitMatrix, imageType, stream, new MatrixToImageConfig(onColor, offColor));
+    }
+
+    private QRCodeVector createVector() throws WriterException {
+        return createVector(this.matrix(), QRCodeMatrix.quietZone(this.hints), this.onColor, this.offColor);
+    }
+
+    static QRCodeVector createVector(QRCodeMatrix matrix, int quietZone, int onColor, int offColor) {
+        // minimal matrix, one unit per module
+        return QRCodeVector.from(matrix.toBitMatrix(0, 0, quietZone), onColor, offColor);
+    }
+
+    /**
+     * returns resolution independent representation of the QR code
+     *
+     * @return qrcode as rectangles
+     */
+    public QRCodeVector vector() {
+        try {
+            return this.createVector();
+        } catch (Exception e) {
+            throw new IllegalStateException("QRCode genertate", e);
+        }
+    }
+
+    /**
+     * returns a vector {@link Renderable} of the QR code for image element in JasperReports
+     *
+     * @return qrcode as renderer
+     */
+    public Renderable renderer() {
+        return this.vector().renderer();
     }
 
     /**
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.util.Map;
+
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+
+/**
+ * Encoded QR code in modules (one bit per module, without quiet zone).
+ * <p>
+ * Encoding (Reed-Solomon, mask selection) is independent of rendering, so the same matrix can be scaled to any
+ * pixel size and quiet zone by {@link #toBitMatrix(int, int, int)}. Matrices are cached by text, error correction
+ * and character set, see {@link #getCache()}.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 11:26:03
+ */
+public final class QRCodeMatrix {
+
+    /** default quiet zone in modules, same as {@link com.google.zxing.qrcode.QRCodeWriter} */
+    public static final int QUIET_ZONE_SIZE = 4;
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private static final LRUCache<Key, QRCodeMatrix> CACHE = new LRUCache<Key, QRCodeMatrix>(DEFAULT_MAX_ENTRIES);
+
+    private final BitMatrix modules;
+
+    private QRCodeMatrix(BitMatrix modules) {
+        this.modules = modules;
+    }
+
+    /**
+     * Cache of encoded matrices used by {@link #of(String, Map)}.
+     */
+    public static LRUCache<Key, QRCodeMatrix> getCache() {
+        return CACHE;
+    }
+
+    /**
+     * Returns cached matrix of text or encodes it.
+     *
+     * @param text
+     *            the text to encode
+     * @param hints
+     *            encode hints, {@link EncodeHintType#ERROR_CORRECTION} and {@link EncodeHintType#CHARACTER_SET} are
+     *            used
+     * @return matrix of modules
+     * @throws WriterException
+     *             if text can not be encoded
+     */
+    public static QRCodeMatrix of(String text, Map<EncodeHintType, ?> hints) throws WriterException {
+
+        ErrorCorrectionLevel level = errorCorrection(hints);
+        Object characterSet = hints == null ? null : hints.get(EncodeHintType.CHARACTER_SET);
+        Key key = new Key(text, level, characterSet == null ? null : characterSet.toString());
+
+        QRCodeMatrix matrix = CACHE.get(key);
+        if (matrix == null) {
+            matrix = encode(text, hints);
+            CACHE.put(key, matrix);
+        }
+        return matrix;
+    }
+
+    /**
+     * Encodes text to matrix of modules without cache.
+     *
+     * @param text
+     *            the text to encode
+     * @param hints
+     *            encode hints
+     * @return matrix of modules
+     * @throws WriterException
+     *             if text can not be encoded
+     */
+    public static QRCodeMatrix encode(String text, Map<EncodeHintType, ?> hints) throws WriterException {
+
+        if (text == null || text.isEmpty()) {
+            throw new IllegalArgumentException("Found empty contents");
+        }
+
+        ByteMatrix input = Encoder.encode(text, errorCorrection(hints), hints).getMatrix();
+        if (input == null) {
+            throw new IllegalStateException();
+        }
+
+        BitMatrix modules = new BitMatrix(input.getWidth(), input.getHeight());
+        for (int y = 0; y < input.getHeight(); y++) {
+            for (int x = 0; x < input.getWidth(); x++) {
+                if (input.get(x, y) == 1) {
+                    modules.set(x, y);
+                }
+            }
+        }
+
+        return new QRCodeMatrix(modules);
+    }
+
+    private static ErrorCorrectionLevel errorCorrection(Map<EncodeHintType, ?> hints) {
+        Object level = hints == null ? null : hints.get(EncodeHintType.ERROR_CORRECTION);
+        return level == null ? ErrorCorrectionLevel.L : (ErrorCorrectionLevel) level;
+    }
+
+    /**
+     * Quiet zone from {@link EncodeHintType#MARGIN} hint.
+     *
+     * @param hints
+     *            encode hints
+     * @return quiet zone in modules
+     */
+    public static int quietZone(Map<EncodeHintType, ?> hints) {
+        Object margin = hints == null ? null : hints.get(EncodeHintType.MARGIN);
+        return margin == null ? QUIET_ZONE_SIZE : Integer.parseInt(margin.toString());
+    }
+
+    /**
+     * Number of modules in row (or column) without quiet zone.
+     */
+    public int getSize() {
+        return this.modules.getWidth();
+    }
+
+    /**
+     * Returns true if module is dark.
+     */
+    public boolean get(int x, int y) {
+        return this.modules.get(x, y);
+    }
+
+    /**
+     * Scales modules to requested size, same as {@link com.google.zxing.qrcode.QRCodeWriter} does. Modules are
+     * scaled by the largest whole multiple fitting to size including quiet zone and centered, size smaller than
+     * matrix gives one pixel per module.
+     *
+     * @param width
+     *            the width in pixels
+     * @param height
+     *            the height in pixels
+     * @param quietZone
+     *            quiet zone in modules
+     * @return scaled matrix
+     */
+    public BitMatrix toBitMatrix(int width, int height, int quietZone) {
+
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Requested dimensions are too small: " + width + 'x' + height);
+        }
+
+        int inputWidth = this.modules.getWidth();
+        int inputHeight = this.modules.getHeight();
+        int qrWidth = inputWidth + quietZone * 2;
+        int qrHeight = inputHeight + quietZone * 2;
+        int outputWidth = Math.max(width, qrWidth);
+        int outputHeight = Math.max(height, qrHeight);
+
+        int multiple = Math.min(outputWidth / qrWidth, outputHeight / qrHeight);
+        int leftPadding = (outputWidth - inputWidth * multiple) / 2;
+        int topPadding = (outputHeight - inputHeight * multiple) / 2;
+
+        BitMatrix output = new BitMatrix(outputWidth, outputHeight);
+
+        for (int inputY = 0, outputY = topPadding; inputY < inputHeight; inputY++, outputY += multiple) {
+            for (int inputX = 0, outputX = leftPadding; inputX < inputWidth; inputX++, outputX += multiple) {
+                if (this.modules.get(inputX, inputY)) {
+                    output.setRegion(outputX, outputY, multiple, multiple);
+                }
+            }
+        }
+
+        return output;
+    }
+
+    /**
+     * Key of cached matrix.
+     */
+    public static final class Key {
+
+        private final String text;
+
+        private final ErrorCorrectionLevel level;
+
+        private final String characterSet;
+
+        private final int hash;
+
+        Key(String text, ErrorCorrectionLevel level, String characterSet) {
+            this.text = text;
+            this.level = level;
+            this.characterSet = characterSet;
+            this.hash = (31 * (text == null ? 0 : text.hashCode()) + level.ordinal()) * 31
+                    + (characterSet == null ? 0 : characterSet.hashCode());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.hash == other.hash && this.level == other.level
+                    && (this.text == null ? other.text == null : this.text.equals(other.text))
+                    && (this.characterSet == null ? other.characterSet == null : this.characterSet
+                            .equals(other.characterSet));
+        }
+
+    }
+
+}
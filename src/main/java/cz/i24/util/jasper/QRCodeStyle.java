@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import net.sf.jasperreports.engine.Renderable;
+
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+/**
+ * Immutable, thread-safe rendering template of QR codes.
+ * <p>
+ * Created once per report (e.g. as report parameter) and applied to many texts, unlike {@link QRCodeColored} no
+ * hints, writers or configs are created for each rendered QR code.
+ * 
+ * <pre>
+ * $P{QR_STYLE}.stream($F{payment})
+ * RU.qr($F{payment}, $P{QR_STYLE})
+ * </pre>
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 11:58:44
+ */
+public final class QRCodeStyle {
+
+    /** 125x125 black on white PNG, error correction L */
+    public static final QRCodeStyle DEFAULT = new QRCodeStyle(125, 125, QRCodeColored.BLACK, QRCodeColored.WHITE,
+            ErrorCorrectionLevel.L, QRCodeColored.PNG, QRCodeMatrix.QUIET_ZONE_SIZE);
+
+    private final int width;
+
+    private final int height;
+
+    private final int onColor;
+
+    private final int offColor;
+
+    private final ErrorCorrectionLevel errorCorrection;
+
+    private final String imageType;
+
+    private final int margin;
+
+    private final Map<EncodeHintType, Object> hints;
+
+    private QRCodeStyle(int width, int height, int onColor, int offColor, ErrorCorrectionLevel errorCorrection,
+            String imageType, int margin) {
+
+        if (errorCorrection == null || imageType == null) {
+            throw new IllegalArgumentException("Error correction and image type are required");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.onColor = onColor;
+        this.offColor = offColor;
+        this.errorCorrection = errorCorrection;
+        this.imageType = imageType;
+        this.margin = margin;
+
+        Map<EncodeHintType, Object> map = new EnumMap<EncodeHintType, Object>(EncodeHintType.class);
+        map.put(EncodeHintType.ERROR_CORRECTION, errorCorrection);
+        if (margin != QRCodeMatrix.QUIET_ZONE_SIZE) {
+            map.put(EncodeHintType.MARGIN, margin);
+        }
+        this.hints = Collections.unmodifiableMap(map);
+    }
+
+    public static QRCodeStyle of(int width, int height, int onColor, int offColor,
+            ErrorCorrectionLevel errorCorrection, String imageType, int margin) {
+        return new QRCodeStyle(width, height, onColor, offColor, errorCorrection, imageType, margin);
+    }
+
+    public QRCodeStyle withSize(int width, int height) {
+        return new QRCodeStyle(width, height, this.onColor, this.offColor, this.errorCorrection, this.imageType,
+                this.margin);
+    }
+
+    public QRCodeStyle withColor(int onColor, int offColor) {
+        return new QRCodeStyle(this.width, this.height, onColor, offColor, this.errorCorrection, this.imageType,
+                this.margin);
+    }
+
+    public QRCodeStyle withErrorCorrection(ErrorCorrectionLevel errorCorrection) {
+        return new QRCodeStyle(this.width, this.height, this.onColor, this.offColor, errorCorrection,
+                this.imageType, this.margin);
+    }
+
+    public QRCodeStyle withMargin(int margin) {
+        return new QRCodeStyle(this.width, this.height, this.onColor, this.offColor, this.errorCorrection,
+                this.imageType, margin);
+    }
+
+    public QRCodeStyle to(String imageType) {
+        return new QRCodeStyle(this.width, this.height, this.onColor, this.offColor, this.errorCorrection,
+                imageType, this.margin);
+    }
+
+    /**
+     * writes the QR code of text to the supplied {@link OutputStream}
+     *
+     * @param text
+     *            the text to encode
+     * @param stream
+     *            the {@link OutputStream} to write QR Code to
+     */
+    public void writeTo(String text, OutputStream stream) {
+        try {
+            QRCodeColored.writeToStream(QRCodeMatrix.of(text, this.hints), this.width, this.height, this.margin,
+                    this.onColor, this.offColor, this.imageType, stream);
+        } catch (Exception e) {
+            throw new IllegalStateException("QRCode genertate", e);
+        }
+    }
+
+    /**
+     * returns the QR code of text as image data
+     *
+     * @param text
+     *            the text to encode
+     * @return qrcode image
+     */
+    public byte[] bytes(String text) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(1024);
+        this.writeTo(text, stream);
+        return stream.toByteArray();
+    }
+
+    /**
+     * returns the QR code of text as stream, served from {@link QRCodeCache#getInstance()}
+     *
+     * @param text
+     *            the text to encode
+     * @return qrcode as stream
+     */
+    public InputStream stream(String text) {
+        return QRCodeCache.getInstance().stream(text, this);
+    }
+
+    /**
+     * returns resolution independent representation of the QR code of text
+     *
+     * @param text
+     *            the text to encode
+     * @return qrcode as rectangles
+     */
+    public QRCodeVector vector(String text) {
+        try {
+            return QRCodeColored.createVector(QRCodeMatrix.of(text, this.hints), this.margin, this.onColor,
+                    this.offColor);
+        } catch (WriterException e) {
+            throw new IllegalStateException("QRCode genertate", e);
+        }
+    }
+
+    /**
+     * returns a vector {@link Renderable} of the QR code of text for image element in JasperReports
+     *
+     * @param text
+     *            the text to encode
+     * @return qrcode as renderer
+     */
+    public Renderable renderer(String text) {
+        return this.vector(text).renderer();
+    }
+
+    /**
+     * Returns mutable QR code with settings of this style.
+     *
+     * @param text
+     *            the text to encode
+     * @return QR code
+     */
+    public QRCodeColored toQRCode(String text) {
+        QRCodeColored qrCode = QRCodeColored.from(text).to(this.imageType).withSize(this.width, this.height)
+                .withColor(this.onColor, this.offColor);
+        for (Map.Entry<EncodeHintType, Object> hint : this.hints.entrySet()) {
+            qrCode.withHint(hint.getKey(), hint.getValue());
+        }
+        return qrCode;
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    public int getOnColor() {
+        return this.onColor;
+    }
+
+    public int getOffColor() {
+        return this.offColor;
+    }
+
+    public ErrorCorrectionLevel getErrorCorrection() {
+        return this.errorCorrection;
+    }
+
+    public String getImageType() {
+        return this.imageType;
+    }
+
+    public int getMargin() {
+        return this.margin;
+    }
+
+    /**
+     * Unmodifiable encode hints of this style.
+     */
+    public Map<EncodeHintType, Object> getHints() {
+        return this.hints;
+    }
+
+    @Override
+    public String toString() {
+        return "QRCodeStyle [width=" + this.width + ", height=" + this.height + ", errorCorrection="
+                + this.errorCorrection + ", imageType=" + this.imageType + ", margin=" + this.margin + "]";
+    }
+
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Dimension2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import net.sf.jasperreports.engine.JRAbstractSvgRenderer;
+import net.sf.jasperreports.engine.JasperReportsContext;
+import net.sf.jasperreports.engine.Renderable;
+
+import com.google.zxing.common.BitMatrix;
+
+/**
+ * Resolution independent QR code composed of rectangles merged from runs of set bits.
+ * <p>
+ * Can be written as SVG image or used directly as {@link Renderable} of image element in JasperReports, so PDF
+ * export contains vector path instead of raster image.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 10:48:51
+ */
+public final class QRCodeVector implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /** matrix width in units */
+    private final int width;
+
+    /** matrix height in units */
+    private final int height;
+
+    /** rectangles as sequence of x, y, width, height */
+    private final int[] rectangles;
+
+    private final int onColor;
+
+    private final int offColor;
+
+    private QRCodeVector(int width, int height, int[] rectangles, int onColor, int offColor) {
+        this.width = width;
+        this.height = height;
+        this.rectangles = rectangles;
+        this.onColor = onColor;
+        this.offColor = offColor;
+    }
+
+    /**
+     * Converts matrix to rectangles, horizontal runs of set bits are merged with equal runs of following rows.
+     *
+     * @param matrix
+     *            the matrix to convert
+     * @param onColor
+     *            ARGB color of set bits
+     * @param offColor
+     *            ARGB color of unset bits
+     * @return vector QR code
+     */
+    public static QRCodeVector from(BitMatrix matrix, int onColor, int offColor) {
+
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+
+        int[] result = new int[64];
+        int count = 0;
+
+        // open rectangles continued from previous row as x, width, top
+        int[] open = new int[width + 1];
+        int openCount = 0;
+        int[] next = new int[width + 1];
+
+        for (int y = 0; y <= height; y++) {
+
+            int nextCount = 0;
+            int o = 0;
+            int x = 0;
+
+            while (y < height && x < width) {
+
+                if (!matrix.get(x, y)) {
+                    x++;
+                    continue;
+                }
+
+                int start = x;
+                while (x < width && matrix.get(x, y)) {
+                    x++;
+                }
+                int runWidth = x - start;
+
+                // close open rectangles left of this run
+                while (o < openCount && open[o] < start) {
+                    result = add(result, count, open[o], open[o + 2], open[o + 1], y - open[o + 2]);
+                    count += 4;
+                    o += 3;
+                }
+
+                int top = y;
+                if (o < openCount && open[o] == start) {
+                    if (open[o + 1] == runWidth) {
+                        top = open[o + 2];
+                    } else {
+                        result = add(result, count, open[o], open[o + 2], open[o + 1], y - open[o + 2]);
+                        count += 4;
+                    }
+                    o += 3;
+                }
+
+                next = ensure(next, nextCount + 3);
+                next[nextCount++] = start;
+                next[nextCount++] = runWidth;
+                next[nextCount++] = top;
+            }
+
+            while (o < openCount) {
+                result = add(result, count, open[o], open[o + 2], open[o + 1], y - open[o + 2]);
+                count += 4;
+                o += 3;
+            }
+
+            int[] swap = open;
+            open = next;
+            next = swap;
+            openCount = nextCount;
+        }
+
+        return new QRCodeVector(width, height, Arrays.copyOf(result, count), onColor, offColor);
+    }
+
+    private static int[] ensure(int[] array, int length) {
+        return length <= array.length ? array : Arrays.copyOf(array, Math.max(length, array.length * 2));
+    }
+
+    private static int[] add(int[] array, int count, int x, int y, int width, int height) {
+        int[] result = ensure(array, count + 4);
+        result[count] = x;
+        result[count + 1] = y;
+        result[count + 2] = width;
+        result[count + 3] = height;
+        return result;
+    }
+
+    /**
+     * Number of merged rectangles.
+     */
+    public int getRectangleCount() {
+        return this.rectangles.length / 4;
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Returns SVG document of QR code.
+     *
+     * @param width
+     *            width of image
+     * @param height
+     *            height of image
+     * @return SVG as string
+     */
+    public String svg(int width, int height) {
+
+        StringBuilder sb = new StringBuilder(160 + this.rectangles.length * 5);
+        sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(width).append("\" height=\"")
+                .append(height).append("\" viewBox=\"0 0 ").append(this.width).append(' ').append(this.height)
+                .append("\" shape-rendering=\"crispEdges\">");
+
+        if (this.offColor >>> 24 != 0) {
+            sb.append("<rect width=\"").append(this.width).append("\" height=\"").append(this.height).append('"');
+            appendFill(sb, this.offColor);
+            sb.append("/>");
+        }
+
+        sb.append("<path");
+        appendFill(sb, this.onColor);
+        sb.append(" d=\"");
+        for (int i = 0; i < this.rectangles.length; i += 4) {
+            sb.append('M').append(this.rectangles[i]).append(' ').append(this.rectangles[i + 1]).append('h')
+                    .append(this.rectangles[i + 2]).append('v').append(this.rectangles[i + 3]).append('h')
+                    .append(-this.rectangles[i + 2]).append('z');
+        }
+        sb.append("\"/></svg>");
+
+        return sb.toString();
+    }
+
+    /**
+     * Writes SVG document of QR code to the supplied {@link OutputStream}.
+     *
+     * @param width
+     *            width of image
+     * @param height
+     *            height of image
+     * @param stream
+     *            the {@link OutputStream} to write SVG to
+     * @throws IOException
+     *             if writing to stream fails
+     */
+    public void writeSvg(int width, int height, OutputStream stream) throws IOException {
+        stream.write(this.svg(width, height).getBytes(UTF_8));
+    }
+
+    private static void appendFill(StringBuilder sb, int color) {
+        sb.append(" fill=\"#");
+        String rgb = Integer.toHexString(color & 0xFFFFFF);
+        for (int i = rgb.length(); i < 6; i++) {
+            sb.append('0');
+        }
+        sb.append(rgb).append('"');
+
+        int alpha = color >>> 24;
+        if (alpha != 0xFF) {
+            sb.append(" fill-opacity=\"").append(alpha / 255f).append('"');
+        }
+    }
+
+    /**
+     * Path of all rectangles in matrix units.
+     */
+    public Path2D toPath() {
+        Path2D path = new Path2D.Float(Path2D.WIND_NON_ZERO, this.rectangles.length);
+        for (int i = 0; i < this.rectangles.length; i += 4) {
+            path.append(new Rectangle2D.Float(this.rectangles[i], this.rectangles[i + 1], this.rectangles[i + 2],
+                    this.rectangles[i + 3]), false);
+        }
+        return path;
+    }
+
+    /**
+     * Returns renderer of QR code usable as expression of image element.
+     *
+     * @return vector renderer
+     */
+    public Renderable renderer() {
+        return new Renderer(this);
+    }
+
+    /**
+     * JasperReports renderer drawing QR code as vector graphics.
+     */
+    private static final class Renderer extends JRAbstractSvgRenderer {
+
+        private static final long serialVersionUID = 1L;
+
+        private final QRCodeVector vector;
+
+        Renderer(QRCodeVector vector) {
+            this.vector = vector;
+        }
+
+        @Override
+        public Dimension2D getDimension(JasperReportsContext jasperReportsContext) {
+            return this.getDimension();
+        }
+
+        /** still required by JasperReports 5.5 {@link JRAbstractSvgRenderer} */
+        @Override
+        @SuppressWarnings("deprecation")
+        public Dimension2D getDimension() {
+            Dimension dimension = new Dimension();
+            dimension.setSize(this.vector.width, this.vector.height);
+            return dimension;
+        }
+
+        /** still required by JasperReports 5.5 {@link JRAbstractSvgRenderer} */
+        @Override
+        @SuppressWarnings("deprecation")
+        public void render(Graphics2D grx, Rectangle2D rectangle) {
+
+            Graphics2D graphics = (Graphics2D) grx.create();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+
+                if (this.vector.offColor >>> 24 != 0) {
+                    graphics.setColor(new Color(this.vector.offColor, true));
+                    graphics.fill(rectangle);
+                }
+
+                AffineTransform transform = AffineTransform.getTranslateInstance(rectangle.getX(), rectangle.getY());
+                transform.scale(rectangle.getWidth() / this.vector.width, rectangle.getHeight() / this.vector.height);
+
+                graphics.setColor(new Color(this.vector.onColor, true));
+                graphics.fill(this.vector.toPath().createTransformedShape(transform));
+
+            } finally {
+                graphics.dispose();
+            }
+        }
+
+    }
+
+}
@@ -6,28 +6,28 @@
  */
 package cz.i24.util.jasper;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.math.BigDecimal;
-import java.text.DateFormat;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.text.NumberFormat;
+import java.math.BigInteger;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import net.sf.jasperreports.engine.JRRewindableDataSource;
+import net.sf.jasperreports.engine.Renderable;
+import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
 import net.sf.jasperreports.engine.util.FileResolver;
 
-import org.apache.commons.beanutils.PropertyUtils;
-
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 
@@ -68,6 +68,12 @@ public final class RU {
 
     public static Locale defaultLocale = new Locale("cs", "CZ");
 
+    /** number of slots of QR code templates used by {@link #qr(String, int, int, int)}, power of two */
+    private static final int QR_STYLE_SLOTS = 16;
+
+    private static final AtomicReferenceArray<QRCodeStyle> QR_STYLES = new AtomicReferenceArray<QRCodeStyle>(
+            QR_STYLE_SLOTS);
+
 
     private RU() {
     }
@@ -77,8 +83,56 @@ public final class RU {
                 .withSize(width, width).withColor(onColor, offColor);
     }
 
+    /**
+     * QR code rendering template with the same settings as {@link #getQRCodeColored(String, int, int, int)}, create
+     * it once per report and use it by {@link #qr(String, QRCodeStyle)}.
+     * <p>
+     * Templates are kept in small table by size and colors, repeated calls return the same instance without allocation.
+     */
+    public static QRCodeStyle qrStyle(int width, int onColor, int offColor) {
+
+        int hash = (width * 31 + onColor) * 31 + offColor;
+        int slot = (hash ^ hash >>> 16) & QR_STYLE_SLOTS - 1;
+
+        QRCodeStyle style = QR_STYLES.get(slot);
+        if (style == null || style.getWidth() != width || style.getOnColor() != onColor
+                || style.getOffColor() != offColor) {
+            // colliding template is replaced
+            style = QRCodeStyle.of(width, width, onColor, offColor, ErrorCorrectionLevel.M, QRCodeColored.PNG,
+                    QRCodeMatrix.QUIET_ZONE_SIZE);
+            QR_STYLES.set(slot, style);
+        }
+
+        return style;
+    }
+
+    /**
+     * QR code image, repeated calls with same parameters are served from {@link QRCodeCache#getInstance()}.
+     */
     public static InputStream qr(String text, int width, int onColor, int offColor) {
-        return new ByteArrayInputStream(getQRCodeColored(text, width, onColor, offColor).stream().toByteArray());
+        return qr(text, qrStyle(width, onColor, offColor));
+    }
+
+    /**
+     * QR code image rendered by template, repeated calls are served from {@link QRCodeCache#getInstance()}.
+     */
+    public static InputStream qr(String text, QRCodeStyle style) {
+        return QRCodeCache.getInstance().stream(text, style);
+    }
+
+    /**
+     * QR code image pre-rendered by {@link QRCodeBatch}, the fill thread only looks it up.
+     */
+    public static InputStream qr(String text, QRCodeBatch batch) {
+        return batch.stream(text);
+    }
+
+    /**
+     * QR code as vector renderer for image element, sharp in PDF at any size.
+     */
+    public static Renderable qrVector(String text, int onColor, int offColor) {
+        return QRCodeColored.from(text).withErrorCorrection(ErrorCorrectionLevel.M).withColor(onColor, offColor)
+                .renderer();
     }
 
 
@@ -95,7 +149,7 @@ public final class RU {
             mask = DATE_FORMAT;
         }
 
-        return new SimpleDateFormat(mask).format(date);
+        return DateFormats.format(date, mask);
     }
 
     /* DATE FORMAT ALIAS */
@@ -118,9 +172,8 @@ public final class RU {
             return (Date) date;
         }
 
-        DateFormat format = new SimpleDateFormat(mask);
         try {
-            return format.parse(date.toString());
+            return DateFormats.parse(date.toString(), mask);
         } catch (ParseException e) {
             return null;
         }
@@ -131,6 +184,25 @@ public final class RU {
     /* NUMBER FORMAT FUNCTIONS */
 
     public static String formatNumber(Number value, String mask, double round) {
+
+        if (round >= 0) {
+
+            // exact formatting without conversion to double
+            String exactMask = mask == null ? NUMBER_FORMAT : mask;
+
+            if (value instanceof BigDecimal) {
+                return NumberFormats.format((BigDecimal) value, exactMask, defaultLocale);
+            }
+
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return NumberFormats.format(value.longValue(), exactMask, defaultLocale);
+            }
+
+            if (value instanceof BigInteger) {
+                return NumberFormats.format(new BigDecimal((BigInteger) value), exactMask, defaultLocale);
+            }
+        }
+
         double val = 0;
         if (value != null) {
             val = value.doubleValue();
@@ -144,84 +216,232 @@ public final class RU {
             mask = NUMBER_FORMAT;
         }
 
-        if (round < 0) {
+        return NumberFormats.format(value, mask, round, defaultLocale);
+    }
 
-            value = Math.round(value / round) * round;
+    public static Object json(Object data, String hierarchy) {
+        return json(data, hierarchy, null);
+    }
 
-        } else {
-            double rounding = 10;
-            if (mask.lastIndexOf(".") > 0) {
-                String ma = mask.substring(mask.lastIndexOf(".") + 1);
-                if (ma.length() > 0) {
-                    double len = ma.length();
-                    rounding = Math.pow(rounding, len);
-
-                    value = Math.round(value * rounding) / rounding;
-                }
-            }
-        }
+    /**
+     * Value of path in JSON tree, e.g. <code>items[0].name</code>. Brackets are array indices, bracket of field name
+     * is escaped by backslash (<code>a.k\[0]</code> for field <code>k[0]</code>), see {@link JsonPath}.
+     */
+    public static Object json(Object data, String hierarchy, Object defaultValue) {
 
-        DecimalFormat df = (DecimalFormat) NumberFormat.getInstance(defaultLocale);
-        DecimalFormatSymbols symbols = df.getDecimalFormatSymbols();
-        symbols.setGroupingSeparator(' ');
-        df.setDecimalFormatSymbols(symbols);
+        if (!(data instanceof JsonNode) || isBlank(hierarchy)) {
+            return defaultValue;
+        }
 
-        df.applyPattern(mask);
-        return df.format(value);
+        try {
+            return jsonValue(JsonPath.of(hierarchy).resolve((JsonNode) data), defaultValue);
+        } catch (Exception e) {
+            return hierarchy;
+        }
     }
 
-    public static Object json(Object data, String hierarchy) {
-        return json(data, hierarchy, null);
+    public static Object jsonMemo(JsonRowMemo memo, Object data, String hierarchy) {
+        return jsonMemo(memo, data, hierarchy, null);
     }
 
-    public static Object json(Object data, String hierarchy, Object defaultValue) {
+    /**
+     * Value of path in row, nodes resolved for row are kept in memo, see {@link JsonRowMemo}.
+     */
+    public static Object jsonMemo(JsonRowMemo memo, Object data, String hierarchy, Object defaultValue) {
+
+        if (memo == null) {
+            return json(data, hierarchy, defaultValue);
+        }
 
         if (!(data instanceof JsonNode) || isBlank(hierarchy)) {
             return defaultValue;
         }
 
         try {
+            return jsonValue(memo.resolve((JsonNode) data, hierarchy), defaultValue);
+        } catch (Exception e) {
+            return hierarchy;
+        }
+    }
+
+    public static Object json(Object data, JsonPath path) {
+        return json(data, path, null);
+    }
+
+    /**
+     * Value of compiled path, path can be held by report variable to avoid any parsing.
+     */
+    public static Object json(Object data, JsonPath path, Object defaultValue) {
+
+        if (!(data instanceof JsonNode) || path == null) {
+            return defaultValue;
+        }
+
+        return jsonValue(path.resolve((JsonNode) data), defaultValue);
+    }
+
+    public static Object[] jsonValues(Object data, JsonProjection projection) {
+        return jsonValues(data, projection, null);
+    }
+
+    /**
+     * Values of all paths of projection resolved in one walk, see {@link JsonProjection#values(JsonNode, Object)}.
+     */
+    public static Object[] jsonValues(Object data, JsonProjection projection, Object defaultValue) {
+        return projection.values(data instanceof JsonNode ? (JsonNode) data : null, defaultValue);
+    }
+
+    public static long jsonLong(Object data, String hierarchy) {
+        return jsonLong(data, hierarchy, 0);
+    }
+
+    /**
+     * Integral value of path without {@link BigDecimal} conversion, textual values are parsed.
+     */
+    public static long jsonLong(Object data, String hierarchy, long defaultValue) {
 
-            String[] parts = hierarchy.split("[.]");
-            JsonNode actual = (JsonNode) data;
+        JsonNode node = jsonNode(data, hierarchy);
 
-            for (String part : parts) {
-                actual = actual.get(part);
-                if (actual == null) {
-                    break;
-                }
+        if (node == null || node.isNull()) {
+            return defaultValue;
+        }
+        if (node.isNumber()) {
+            return node.longValue();
+        }
+        if (node.isTextual()) {
+            try {
+                return Long.parseLong(node.textValue().trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
             }
+        }
 
-            if (actual != null) {
+        return defaultValue;
+    }
 
-                if (actual.isArray()) {
+    public static double jsonDouble(Object data, String hierarchy) {
+        return jsonDouble(data, hierarchy, 0);
+    }
 
-                    List<JsonNode> dataList = new ArrayList<JsonNode>();
+    /**
+     * Floating point value of path without {@link BigDecimal} conversion, textual values are parsed. Result can be
+     * passed to {@link #formatNumber(double, String)}.
+     */
+    public static double jsonDouble(Object data, String hierarchy, double defaultValue) {
 
-                    for (final JsonNode objNode : actual) {
-                        dataList.add(objNode);
-                    }
+        JsonNode node = jsonNode(data, hierarchy);
 
-                    return dataList;
-                }
+        if (node == null || node.isNull()) {
+            return defaultValue;
+        }
+        if (node.isNumber()) {
+            return node.doubleValue();
+        }
+        if (node.isTextual()) {
+            try {
+                return Double.parseDouble(node.textValue().trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+
+        return defaultValue;
+    }
 
-                if (actual.isNull()) {
-                    return defaultValue;
-                }
+    public static BigDecimal jsonDecimal(Object data, String hierarchy) {
+        return jsonDecimal(data, hierarchy, null);
+    }
 
-                if (actual.isBigDecimal() || actual.isDouble() || actual.isFloatingPointNumber() || actual.isNumber()) {
-                    return actual.decimalValue();
-                }
+    /**
+     * Exact decimal value of path, textual values are parsed.
+     */
+    public static BigDecimal jsonDecimal(Object data, String hierarchy, BigDecimal defaultValue) {
 
-                if (actual.isBigInteger() || actual.isInt() || actual.isLong() || actual.isIntegralNumber()) {
-                    return actual.longValue();
-                }
+        JsonNode node = jsonNode(data, hierarchy);
 
-                return actual.asText();
+        if (node == null || node.isNull()) {
+            return defaultValue;
+        }
+        if (node.isNumber()) {
+            return node.decimalValue();
+        }
+        if (node.isTextual()) {
+            try {
+                return new BigDecimal(node.textValue().trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
             }
+        }
 
-        } catch (Exception e) {
-            return hierarchy;
+        return defaultValue;
+    }
+
+    public static String jsonString(Object data, String hierarchy) {
+        return jsonString(data, hierarchy, null);
+    }
+
+    /**
+     * Text of scalar value of path, objects and arrays are returned as default value.
+     */
+    public static String jsonString(Object data, String hierarchy, String defaultValue) {
+
+        JsonNode node = jsonNode(data, hierarchy);
+
+        if (node == null || node.isNull() || node.isContainerNode()) {
+            return defaultValue;
+        }
+
+        return node.asText();
+    }
+
+    public static Date jsonDate(Object data, String hierarchy) {
+        return jsonDate(data, hierarchy, DATE_FORMAT);
+    }
+
+    /**
+     * Date of textual value of path parsed by mask, null if value does not exist or is not valid.
+     */
+    public static Date jsonDate(Object data, String hierarchy, String mask) {
+
+        JsonNode node = jsonNode(data, hierarchy);
+
+        if (node == null || !node.isTextual()) {
+            return null;
+        }
+
+        return date(node.textValue(), mask);
+    }
+
+    private static JsonNode jsonNode(Object data, String hierarchy) {
+
+        if (!(data instanceof JsonNode) || isBlank(hierarchy)) {
+            return null;
+        }
+
+        return JsonPath.of(hierarchy).resolve((JsonNode) data);
+    }
+
+    static Object jsonValue(JsonNode actual, Object defaultValue) {
+
+        if (actual != null) {
+
+            if (actual.isArray()) {
+                return new JsonArrayList(actual);
+            }
+
+            if (actual.isNull()) {
+                return defaultValue;
+            }
+
+            if (actual.isBigDecimal() || actual.isDouble() || actual.isFloatingPointNumber() || actual.isNumber()) {
+                return actual.decimalValue();
+            }
+
+            if (actual.isBigInteger() || actual.isInt() || actual.isLong() || actual.isIntegralNumber()) {
+                return actual.longValue();
+            }
+
+            return actual.asText();
         }
 
         return defaultValue;
@@ -406,34 +626,36 @@ public final class RU {
         return s;
     }
 
+    /**
+     * Year, month and day of date computed at once.
+     *
+     * @param date
+     *            date
+     * @return fields or null for null date
+     */
+    public static DateFields dateFields(Date date) {
+        return DateFields.of(date);
+    }
+
     public static Integer getMonth(Date date) {
         if (date == null) {
             return null;
         }
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        return new Integer(cal.get(Calendar.MONTH) + 1);
-
+        return Integer.valueOf(DateFields.month(DateFields.fields(date, true)));
     }
 
     public static Integer getYear(Date date) {
         if (date == null) {
             return null;
         }
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        return new Integer(cal.get(Calendar.YEAR));
-
+        return Integer.valueOf(DateFields.year(DateFields.fields(date, true)));
     }
 
     public static Integer getDay(Date date) {
         if (date == null) {
             return null;
         }
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        return new Integer(cal.get(Calendar.DAY_OF_MONTH));
-
+        return Integer.valueOf(DateFields.day(DateFields.fields(date, true)));
     }
 
     /**
@@ -505,12 +727,7 @@ public final class RU {
      * @return difference between two Dates in string format hh:mm:ss
      * */
     public static String dateDifference(Date startDate, Date endDate) {
-        Calendar startCal = Calendar.getInstance();
-        Calendar endCal = Calendar.getInstance();
-        startCal.setTime(startDate);
-        endCal.setTime(endDate);
-
-        long diffInMillis = endCal.getTimeInMillis() - startCal.getTimeInMillis();
+        long diffInMillis = endDate.getTime() - startDate.getTime();
         long hours = diffInMillis / (1000 * 60 * 60);
         long minutes = diffInMillis % (1000 * 60 * 60) / (1000 * 60);
         long seconds = diffInMillis % (1000 * 60 * 60) % (1000 * 60) / 1000;
@@ -550,42 +767,82 @@ public final class RU {
         return font("black", nn(o));
     }
 
+    public static String black(Object o, boolean escape) {
+        return font("black", nn(o), escape);
+    }
+
     public static String red(Object o) {
         return font("red", nn(o));
     }
 
+    public static String red(Object o, boolean escape) {
+        return font("red", nn(o), escape);
+    }
+
     public static String blue(Object o) {
         return font("blue", nn(o));
     }
 
+    public static String blue(Object o, boolean escape) {
+        return font("blue", nn(o), escape);
+    }
+
     public static String green(Object o) {
         return font("green", nn(o));
     }
 
+    public static String green(Object o, boolean escape) {
+        return font("green", nn(o), escape);
+    }
+
     public static String yellow(Object o) {
         return font("yellow", nn(o));
     }
 
+    public static String yellow(Object o, boolean escape) {
+        return font("yellow", nn(o), escape);
+    }
+
     public static String pink(Object o) {
         return font("pink", nn(o));
     }
 
+    public static String pink(Object o, boolean escape) {
+        return font("pink", nn(o), escape);
+    }
+
     public static String cyan(Object o) {
         return font("cyan", nn(o));
     }
 
+    public static String cyan(Object o, boolean escape) {
+        return font("cyan", nn(o), escape);
+    }
+
     public static String white(Object o) {
         return font("white", nn(o));
     }
 
+    public static String white(Object o, boolean escape) {
+        return font("white", nn(o), escape);
+    }
+
     public static String orange(Object o) {
         return font("orange", nn(o));
     }
 
+    public static String orange(Object o, boolean escape) {
+        return font("orange", nn(o), escape);
+    }
+
     public static String silver(Object o) {
         return font("silver", nn(o));
     }
 
+    public static String silver(Object o, boolean escape) {
+        return font("silver", nn(o), escape);
+    }
+
     /**
      * nithia color
      *
@@ -596,6 +853,10 @@ public final class RU {
         return font("#D16B1B", nn(o));
     }
 
+    public static String nc(Object o, boolean escape) {
+        return font("#D16B1B", nn(o), escape);
+    }
+
     public static String li() {
         return white("___") + RU.style("wingding", "\u00fa") + " ";
     }
@@ -604,10 +865,18 @@ public final class RU {
         return tag("i", nn(o));
     }
 
+    public static String i(Object o, boolean escape) {
+        return tag("i", nn(o), escape);
+    }
+
     public static String b(Object o) {
         return tag("b", nn(o));
     }
 
+    public static String b(Object o, boolean escape) {
+        return tag("b", nn(o), escape);
+    }
+
     public static String u(Object o) {
         return tag("u", nn(o));
     }
@@ -617,25 +886,42 @@ public final class RU {
     }
 
     public static String s(Object original, Boolean striked, Boolean addSpaces) {
+        return s(original, striked, addSpaces, false);
+    }
+
+    /**
+     * Text struck through when striked, XML special characters of text are escaped when required.
+     */
+    public static String s(Object original, Boolean striked, Boolean addSpaces, boolean escape) {
         if (original == null) {
             return "";
         }
 
-        String space = "";
-        if (Boolean.TRUE.equals(addSpaces)) {
-            space = " ";
-        }
-
-        return "<style" + (Boolean.TRUE.equals(striked) ? " isStrikeThrough=\"true\"" : "") + ">" + space
-                + nn(original) + space + "</style>";
+        return Markup.strike(nn(original), Boolean.TRUE.equals(striked), Boolean.TRUE.equals(addSpaces), escape);
     }
 
     public static String u(Object o, Boolean striked) {
-        return Boolean.TRUE.equals(striked) ? u(o) : nn(o);
+        return u(o, striked, false);
+    }
+
+    /**
+     * Text underlined when striked, XML special characters of text are escaped when required. There is no
+     * <code>u(Object, boolean)</code>, it would take calls of {@link #u(Object, Boolean)} with literal flag.
+     */
+    public static String u(Object o, Boolean striked, boolean escape) {
+        if (Boolean.TRUE.equals(striked)) {
+            return tag("u", nn(o), escape);
+        }
+        return escape ? escape(o) : nn(o);
     }
 
     public static String bi(Object o) {
-        return tag("i", tag("b", nn(o)));
+        return bi(o, false);
+    }
+
+    public static String bi(Object o, boolean escape) {
+        Markup markup = Markup.of(o).bold().italic();
+        return (escape ? markup.escaped() : markup).toString();
     }
 
     /**
@@ -668,6 +954,16 @@ public final class RU {
         return u(o);
     }
 
+    /**
+     * compatibility
+     *
+     * @deprecated Use method u(Object o, Boolean striked, boolean escape)
+     */
+    @Deprecated
+    public static String underline(Object o, boolean escape) {
+        return u(o, Boolean.TRUE, escape);
+    }
+
     /**
      * compatibility
      *
@@ -679,26 +975,67 @@ public final class RU {
         return bi(o);
     }
 
+    /**
+     * Builder of styled text written in single buffer, e.g.
+     * <code>RU.styled($F{name}).bold().color("red").font("arial", 9)</code>, see {@link Markup}.
+     */
+    public static Markup styled(Object o) {
+        return Markup.of(o);
+    }
+
     public static String color(String color, String original) {
         return font(color, original);
     }
 
+    public static String color(String color, String original, boolean escape) {
+        return font(color, original, escape);
+    }
+
     public static String rgb(String color, String original) {
         return font(color, original);
     }
 
+    public static String rgb(String color, String original, boolean escape) {
+        return font(color, original, escape);
+    }
+
     public static String font(String color, String original) {
+        return font(color, original, false);
+    }
+
+    /**
+     * Text wrapped by font of color, XML special characters of text are escaped when required.
+     */
+    public static String font(String color, String original, boolean escape) {
         if (original == null) {
             return "";
         }
-        return "<font color=\"" + color + "\">" + original + "</font>";
+        return Markup.font(color, original, escape);
     }
 
     public static String tag(String name, String original) {
+        return tag(name, original, false);
+    }
+
+    /**
+     * Text wrapped by tag, XML special characters of text are escaped when required.
+     */
+    public static String tag(String name, String original, boolean escape) {
         if (original == null) {
             return "";
         }
-        return "<" + name + ">" + original + "</" + name + ">";
+        return Markup.tag(name, original, escape);
+    }
+
+    /**
+     * Text with XML special characters (<code>&amp; &lt; &gt; &quot;</code>) escaped for styled text.
+     *
+     * @param o
+     *            value, null is empty text
+     * @return escaped text, the same string when there is nothing to escape
+     */
+    public static String escape(Object o) {
+        return Markup.escape(nn(o));
     }
 
 
@@ -725,7 +1062,7 @@ public final class RU {
     }
 
     public static String paragraph(int size) {
-        return "\n<font size=\"" + size + "\" color=\"white\">X</font>\n";
+        return Paragraphs.separator(size);
     }
 
     public static String paragraph() {
@@ -737,20 +1074,7 @@ public final class RU {
     }
 
     public static String paragraph(String text, int size) {
-
-        String preparedText = "";
-
-        if (text == null) {
-            return preparedText;
-        }
-
-        String[] separated = text.split("\n\t");
-
-        for (String par : separated) {
-            preparedText += par + paragraph(size);
-        }
-
-        return preparedText;
+        return Paragraphs.format(text, size);
     }
 
 
@@ -793,6 +1117,13 @@ public final class RU {
     }
 
     public static String style(String pdfFontName, String original, int size, boolean trueType) {
+        return style(pdfFontName, original, size, trueType, false);
+    }
+
+    /**
+     * Text in style of PDF font, XML special characters of text are escaped when required.
+     */
+    public static String style(String pdfFontName, String original, int size, boolean trueType, boolean escape) {
 
         if (original == null) {
             return "";
@@ -802,18 +1133,23 @@ public final class RU {
             return "";
         }
 
-        String finalString = "<style pdfFontName=\"" + pdfFontName.toLowerCase() + "." + (trueType ? "ttf" : "otf")
-                + "\"";
+        return Markup.style(pdfFontName, original, size, trueType, escape);
+    }
 
-        if (size > 0) {
-            finalString += " size=\"" + size + "\"";
+    /**
+     * Text in variant of base font, open tag is taken from {@link MarkupTags}.
+     */
+    private static String style(String baseFontName, int variant, String original, int size, boolean trueType,
+            boolean escape) {
+
+        if (original == null) {
+            return "";
         }
 
-        finalString += ">" + original + "</style>";
-        return finalString;
+        return Markup.style(baseFontName == null ? BASE_FONT : baseFontName, variant, original, size, trueType,
+                escape);
     }
 
-
     public static String style(String pdfFontName, String original) {
         return style(pdfFontName, original, -1, true);
     }
@@ -826,92 +1162,112 @@ public final class RU {
         if (baseFontName == null) {
             baseFontName = BASE_FONT;
         }
-        return style(baseFontName + "bd", original, size, true);
+        return style(baseFontName, MarkupTags.BOLD, original, size, true, false);
     }
 
     public static String b(String baseFontName, String original, int size, boolean trueType) {
         if (baseFontName == null) {
             baseFontName = BASE_FONT;
         }
-        return style(baseFontName + "bd", original, size, trueType);
+        return style(baseFontName, MarkupTags.BOLD, original, size, trueType, false);
+    }
+
+    public static String b(String baseFontName, String original, int size, boolean trueType, boolean escape) {
+        return style(baseFontName, MarkupTags.BOLD, original, size, trueType, escape);
     }
 
     public static String b(String baseFontName, String original) {
         if (baseFontName == null) {
             baseFontName = BASE_FONT;
         }
-        return style(baseFontName + "bd", original, -1, true);
+        return style(baseFontName, MarkupTags.BOLD, original, -1, true, false);
     }
 
     public static String b(String baseFontName, String original, boolean trueType) {
         if (baseFontName == null) {
             baseFontName = BASE_FONT;
         }
-        return style(baseFontName + "bd", original, -1, trueType);
+        return style(baseFontName, MarkupTags.BOLD, original, -1, trueType, false);
     }
 
     public static String i(String baseFontName, String original, int size) {
         if (baseFontName == null) {
             baseFontName = BASE_FONT;
         }
-        return style(baseFontName + "i", original, size, true);
+        return style(baseFontName, MarkupTags.ITALIC, original, size, true, false);
     }
 
     public static String i(String baseFontName, String original, int size, boolean trueType) {
         if (baseFontName == null) {
             baseFontName = BASE_FONT;
         }
-        return style(baseFontName + "i", original, size, trueType);
+        return style(baseFontName, MarkupTags.ITALIC, original, size, trueType, false);
+    }
+
+    public static String i(String baseFontName, String original, int size, boolean trueType, boolean escape) {
+        return style(baseFontName, MarkupTags.ITALIC, original, size, trueType, escape);
     }
 
     public static String sup(String original) {
         return tag("sup", original);
     }
 
+    public static String sup(String original, boolean escape) {
+        return tag("sup", original, escape);
+    }
+
     public static String sub(String original) {
         return tag("sub", original);
     }
 
+    public static String sub(String original, boolean escape) {
+        return tag("sub", original, escape);
+    }
+
     public static String i(String baseFontName, String original) {
         if (baseFontName == null) {
             baseFontName = BASE_FONT;
         }
-        return style(baseFontName + "i", original, -1, true);
+        return style(baseFontName, MarkupTags.ITALIC, original, -1, true, false);
     }
 
     public static String i(String baseFontName, String original, boolean trueType) {
         if (baseFontName == null) {
             baseFontName = BASE_FONT;
         }
-        return style(baseFontName + "i", original, -1, trueType);
+        return style(baseFontName, MarkupTags.ITALIC, original, -1, trueType, false);
     }
 
     public static String bi(String baseFontName, String original, int size) {
         if (baseFontName == null) {
             baseFontName = BASE_FONT;
         }
-        return style(baseFontName + "bi", original, size, true);
+        return style(baseFontName, MarkupTags.BOLD_ITALIC, original, size, true, false);
     }
 
     public static String bi(String baseFontName, String original, int size, boolean trueType) {
         if (baseFontName == null) {
             baseFontName = BASE_FONT;
         }
-        return style(baseFontName + "bi", original, size, trueType);
+        return style(baseFontName, MarkupTags.BOLD_ITALIC, original, size, trueType, false);
+    }
+
+    public static String bi(String baseFontName, String original, int size, boolean trueType, boolean escape) {
+        return style(baseFontName, MarkupTags.BOLD_ITALIC, original, size, trueType, escape);
     }
 
     public static String bi(String baseFontName, String original) {
         if (baseFontName == null) {
             baseFontName = BASE_FONT;
         }
-        return style(baseFontName + "bi", original, -1, true);
+        return style(baseFontName, MarkupTags.BOLD_ITALIC, original, -1, true, false);
     }
 
     public static String bi(String baseFontName, String original, boolean trueType) {
         if (baseFontName == null) {
             baseFontName = BASE_FONT;
         }
-        return style(baseFontName + "bi", original, -1, trueType);
+        return style(baseFontName, MarkupTags.BOLD_ITALIC, original, -1, trueType, false);
     }
 
     public static String checkbox(Boolean value) {
@@ -975,15 +1331,13 @@ public final class RU {
             value = "";
         }
 
-        String retVal = "";
+        StringBuilder retVal = new StringBuilder(value.length() * 2 + 3).append("* ");
 
         for (int i = 0; i < value.length(); i++) {
-            retVal += value.charAt(i) + " ";
+            retVal.append(value.charAt(i)).append(' ');
         }
 
-        retVal = "* " + retVal + "*";
-
-        return retVal;
+        return retVal.append('*').toString();
 
     }
 
@@ -1008,19 +1362,29 @@ public final class RU {
             return "";
         }
 
-        int finalIndex = -1;
-        for (int i = 0; i < indexes.length; i++) {
-
-            if (indexes[i] == index.intValue()) {
-                finalIndex = i;
+        // last match wins
+        int code = index.intValue();
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            if (indexes[i] == code) {
+                return messages[i];
             }
         }
 
-        if (finalIndex == -1) {
+        return "";
+    }
+
+    /**
+     * Label of code from table built once, same as {@link #message(String[], int[], Number)}.
+     */
+    public static String message(CodeTable table, Number index) {
+
+        if (index == null || table == null) {
             return "";
         }
 
-        return messages[finalIndex];
+        // null label is returned as by array lookup
+        int code = index.intValue();
+        return table.contains(code) ? table.get(code) : "";
     }
 
     public static String dateToAcc(Date date) {
@@ -1029,10 +1393,10 @@ public final class RU {
             return "";
         }
 
-        Calendar cal = new GregorianCalendar();
-        cal.setTime(date);
-        return cal.get(Calendar.YEAR) + "." + addZerosBefore("" + (cal.get(Calendar.MONTH) + 1), 2);
-
+        long fields = DateFields.fields(date, false);
+        int month = DateFields.month(fields);
+        return new StringBuilder(7).append(DateFields.year(fields)).append(month < 10 ? ".0" : ".").append(month)
+                .toString();
     }
 
     public static String monthAdd(String acc, int months) {
@@ -1261,23 +1625,13 @@ public final class RU {
             return negation ? objects : filtered;
         }
 
+        Set filter = filterValues instanceof Set ? (Set) filterValues : filterSet(filterValues);
+
         for (Object obj : objects) {
 
-            Object value = obj;
-            if (method != null) {
-                if (obj instanceof JsonNode) {
-                    value = json(obj, method);
-                } else {
-                    try {
-                        value = PropertyUtils.getProperty(value, method);
-                    } catch (Exception e) {
-                        value = null;
-                    }
-                }
-            }
+            Object value = method == null ? obj : property(obj, method);
 
-            if (value != null
-                    && (!negation && filterValues.contains(value) || negation && !filterValues.contains(value))) {
+            if (value != null && filter.contains(value) != negation) {
                 filtered.add(obj);
             }
 
@@ -1286,6 +1640,115 @@ public final class RU {
         return filtered;
     }
 
+    /**
+     * Rows of index with value contained in filter values, same as {@link #in(Collection, String, Collection)}.
+     */
+    @SuppressWarnings("rawtypes")
+    public static Collection in(CollectionIndex index, Collection filterValues) {
+        return index.in(filterValues);
+    }
+
+    /**
+     * Rows of index with value not contained in filter values, same as {@link #nin(Collection, String, Collection)}.
+     */
+    @SuppressWarnings("rawtypes")
+    public static Collection nin(CollectionIndex index, Collection filterValues) {
+        return index.nin(filterValues);
+    }
+
+    /**
+     * Lazy view of rows with value contained in filter values, rows are filtered while iterated.
+     */
+    @SuppressWarnings("rawtypes")
+    public static Collection inLazy(Collection objects, String method, Collection filterValues) {
+        return new FilteredCollection(objects, method, filterValues, false);
+    }
+
+    /**
+     * Lazy view of rows with value not contained in filter values, rows are filtered while iterated.
+     */
+    @SuppressWarnings("rawtypes")
+    public static Collection ninLazy(Collection objects, String method, Collection filterValues) {
+        return new FilteredCollection(objects, method, filterValues, true);
+    }
+
+    /**
+     * Data source of beans with value contained in filter values, rows are filtered as report pulls them.
+     */
+    @SuppressWarnings("rawtypes")
+    public static JRRewindableDataSource inSource(Collection objects, String method, Collection filterValues) {
+        return new JRBeanCollectionDataSource(inLazy(objects, method, filterValues));
+    }
+
+    /**
+     * Data source of beans with value not contained in filter values, rows are filtered as report pulls them.
+     */
+    @SuppressWarnings("rawtypes")
+    public static JRRewindableDataSource ninSource(Collection objects, String method, Collection filterValues) {
+        return new JRBeanCollectionDataSource(ninLazy(objects, method, filterValues));
+    }
+
+    /**
+     * Index of rows by property value or JSON path for repeated filtering, see {@link CollectionIndex}.
+     */
+    @SuppressWarnings("rawtypes")
+    public static CollectionIndex index(Collection objects, String method) {
+        return CollectionIndex.of(objects, method);
+    }
+
+    /**
+     * Exact sum of numeric property values or JSON path values, see {@link Aggregations}.
+     */
+    @SuppressWarnings("rawtypes")
+    public static BigDecimal sum(Collection objects, String method) {
+        return Aggregations.sum(objects, method);
+    }
+
+    @SuppressWarnings("rawtypes")
+    public static long count(Collection objects, String method) {
+        return Aggregations.count(objects, method);
+    }
+
+    @SuppressWarnings("rawtypes")
+    public static Object min(Collection objects, String method) {
+        return Aggregations.min(objects, method);
+    }
+
+    @SuppressWarnings("rawtypes")
+    public static Object max(Collection objects, String method) {
+        return Aggregations.max(objects, method);
+    }
+
+    @SuppressWarnings("rawtypes")
+    public static Map<Object, List<Object>> groupBy(Collection objects, String method) {
+        return Aggregations.groupBy(objects, method);
+    }
+
+    @SuppressWarnings("rawtypes")
+    public static Map<Object, BigDecimal> groupSum(Collection objects, String keyMethod, String valueMethod) {
+        return Aggregations.groupSum(objects, keyMethod, valueMethod);
+    }
+
+    /**
+     * Filter values as hash set, looked up once per row instead of list scan.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    static Set<Object> filterSet(Collection filterValues) {
+        return new HashSet<Object>(filterValues);
+    }
+
+    /**
+     * Property value of bean read by {@link PropertyAccessor} or value of JSON path, null if it can not be read.
+     */
+    static Object property(Object obj, String method) {
+
+        if (obj instanceof JsonNode) {
+            return json(obj, method);
+        }
+
+        return PropertyAccessor.get(obj, method);
+    }
+
 
     @SuppressWarnings("rawtypes")
     public static List list(Object... data) {
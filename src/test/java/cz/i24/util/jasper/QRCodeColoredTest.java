@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2014 Karumien s.r.o.
+ * 
+ * The contractor, Karumien s.r.o., does not take any responsibility for defects
+ * arising from unauthorized changes to the source code.
+ */
+package cz.i24.util.jasper;
+
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.imageio.ImageIO;
+
+import net.sf.jasperreports.engine.DefaultJasperReportsContext;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.Renderable;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageConfig;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+
+/**
+ * Test of {@link QRCodeColored}.
+ * 
+ * @author <a href="miroslav.svoboda@karumien.com">Miroslav Svoboda</a>
+ * @version 1.0
+ * @since 17.10.2026 09:51:30
+ */
+public class QRCodeColoredTest {
+
+    private static final String PAYMENT = "SPD*1.0*ACC:CZ5855000000001265098001*AM:480.50*CC:CZK*X-VS:1234567890";
+
+    @Test
+    public void testCache() throws IOException {
+
+        QRCodeCache cache = new QRCodeCache(2, 0);
+
+        byte[] first = cache.bytes(RU.getQRCodeColored(PAYMENT, 125, QRCodeColored.BLACK, QRCodeColored.WHITE));
+        byte[] second = cache.bytes(RU.getQRCodeColored(PAYMENT, 125, QRCodeColored.BLACK, QRCodeColored.WHITE));
+
+        Assert.assertSame(second, first);
+        Assert.assertEquals(cache.getHits(), 1);
+        Assert.assertEquals(cache.getMisses(), 1);
+
+        cache.bytes(RU.getQRCodeColored(PAYMENT, 250, QRCodeColored.BLACK, QRCodeColored.WHITE));
+        cache.bytes(RU.getQRCodeColored(PAYMENT, 125, 0xFF0000FF, QRCodeColored.WHITE));
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertEquals(cache.getMisses(), 3);
+
+        cache.setMaxWeight(first.length);
+        Assert.assertTrue(cache.getWeight() <= first.length);
+
+        InputStream is = RU.qr(PAYMENT, 125, QRCodeColored.BLACK, QRCodeColored.WHITE);
+        InputStream is2 = RU.qr(PAYMENT, 125, QRCodeColored.BLACK, QRCodeColored.WHITE);
+        Assert.assertNotSame(is2, is);
+        Assert.assertEquals(is.available(), first.length);
+        Assert.assertEquals(is2.read(), first[0] & 0xFF);
+    }
+
+    @Test
+    public void testPng() throws IOException, WriterException {
+
+        Map<EncodeHintType, Object> hints = new HashMap<EncodeHintType, Object>();
+        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M);
+        BitMatrix matrix = new QRCodeWriter().encode(PAYMENT, BarcodeFormat.QR_CODE, 131, 131, hints);
+
+        assertSamePixels(matrix, 0xFF0000FF, QRCodeColored.WHITE);
+        assertSamePixels(matrix, QRCodeColored.BLACK, QRCodeColored.WHITE);
+    }
+
+    @Test
+    public void testPngRgb() throws IOException, WriterException {
+
+        BufferedImage image = ImageIO.read(RU.qr(PAYMENT, 125, 0x0000FF, 0xFFFFFF));
+        Assert.assertEquals(image.getRGB(0, 0), 0xFFFFFFFF);
+
+        int on = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int rgb = image.getRGB(x, y);
+                Assert.assertTrue(rgb == 0xFF0000FF || rgb == 0xFFFFFFFF, "pixel " + x + "x" + y);
+                on += rgb == 0xFF0000FF ? 1 : 0;
+            }
+        }
+        Assert.assertTrue(on > 0);
+
+        BitMatrix matrix = new QRCodeWriter().encode(PAYMENT, BarcodeFormat.QR_CODE, 131, 131);
+        assertSamePixels(matrix, 0x0000FF, 0xFFFFFF);
+    }
+
+    @Test
+    public void testVector() throws WriterException, IOException, JRException {
+
+        BitMatrix matrix = new QRCodeWriter().encode(PAYMENT, BarcodeFormat.QR_CODE, 0, 0);
+        QRCodeVector vector = QRCodeVector.from(matrix, QRCodeColored.BLACK, QRCodeColored.WHITE);
+
+        Path2D path = vector.toPath();
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                Assert.assertEquals(path.contains(x + 0.5, y + 0.5), matrix.get(x, y), "module " + x + "x" + y);
+            }
+        }
+
+        Assert.assertTrue(vector.getRectangleCount() < matrix.getWidth() * matrix.getHeight() / 4);
+
+        String svg = new String(QRCodeColored.from(PAYMENT).to(QRCodeColored.SVG).withSize(200, 200).stream()
+                .toByteArray(), "UTF-8");
+        Assert.assertTrue(svg.startsWith("<svg "));
+        Assert.assertTrue(svg.contains("width=\"200\""));
+        Assert.assertTrue(svg.contains("fill=\"#000000\""));
+
+        Renderable renderer = RU.qrVector(PAYMENT, QRCodeColored.BLACK, QRCodeColored.WHITE);
+        QRCodeVector expected = QRCodeColored.from(PAYMENT).withErrorCorrection(ErrorCorrectionLevel.M).vector();
+        Assert.assertEquals(renderer.getDimension(DefaultJasperReportsContext.getInstance()).getWidth(),
+                (double) expected.getWidth());
+        Assert.assertNotNull(renderer.getImageData(DefaultJasperReportsContext.getInstance()));
+    }
+
+    @Test
+    public void testMatrix() throws WriterException {
+
+        Map<EncodeHintType, Object> hints = new HashMap<EncodeHintType, Object>();
+        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M);
+
+        QRCodeMatrix modules = QRCodeMatrix.of(PAYMENT, hints);
+        Assert.assertSame(QRCodeMatrix.of(PAYMENT, hints), modules);
+
+        for (int size : new int[] { 0, 50, 125, 131, 250 }) {
+            Assert.assertEquals(modules.toBitMatrix(size, size, QRCodeMatrix.QUIET_ZONE_SIZE),
+                    new QRCodeWriter().encode(PAYMENT, BarcodeFormat.QR_CODE, size, size, hints));
+        }
+
+        hints.put(EncodeHintType.MARGIN, 1);
+        Assert.assertSame(QRCodeMatrix.of(PAYMENT, hints), modules);
+        Assert.assertEquals(modules.toBitMatrix(125, 100, QRCodeMatrix.quietZone(hints)),
+                new QRCodeWriter().encode(PAYMENT, BarcodeFormat.QR_CODE, 125, 100, hints));
+    }
+
+    @Test
+    public void testStyle() {
+
+        QRCodeStyle style = RU.qrStyle(150, 0xFF0000FF, QRCodeColored.WHITE);
+        QRCodeColored qrCode = RU.getQRCodeColored(PAYMENT, 150, 0xFF0000FF, QRCodeColored.WHITE);
+
+        Assert.assertEquals(style.bytes(PAYMENT), qrCode.stream().toByteArray());
+        Assert.assertEquals(style.toQRCode(PAYMENT).stream().toByteArray(), qrCode.stream().toByteArray());
+        Assert.assertEquals(style.withMargin(1).bytes(PAYMENT), qrCode.withMargin(1).stream().toByteArray());
+        Assert.assertEquals(style.withMargin(1).getMargin(), 1);
+        Assert.assertEquals(style.getMargin(), QRCodeMatrix.QUIET_ZONE_SIZE);
+        Assert.assertSame(RU.qrStyle(150, 0xFF0000FF, QRCodeColored.WHITE), style);
+        Assert.assertEquals(RU.qrStyle(151, 0xFF0000FF, QRCodeColored.WHITE).getWidth(), 151);
+
+        QRCodeCache cache = new QRCodeCache(10, 0);
+        byte[] data = cache.bytes(PAYMENT, style);
+        Assert.assertSame(cache.bytes(RU.getQRCodeColored(PAYMENT, 150, 0xFF0000FF, QRCodeColored.WHITE)), data);
+        Assert.assertEquals(cache.getHits(), 1);
+    }
+
+    @Test
+    public void testBatch() throws IOException {
+
+        QRCodeStyle style = RU.qrStyle(125, QRCodeColored.BLACK, QRCodeColored.WHITE);
+        List<RiderVO> riders = new ArrayList<RiderVO>();
+        for (int i = 0; i < 50; i++) {
+            riders.add(new RiderVO(PAYMENT + i % 20));
+        }
+        riders.add(new RiderVO(null));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            QRCodeBatch batch = QRCodeBatch.prerender(riders, "product", style, executor);
+            Assert.assertEquals(batch.size(), 20);
+            Assert.assertTrue(batch.contains(PAYMENT + 7));
+            Assert.assertEquals(batch.bytes(PAYMENT + 7), style.bytes(PAYMENT + 7));
+            Assert.assertEquals(RU.qr(PAYMENT + 7, batch).available(), style.bytes(PAYMENT + 7).length);
+
+            Assert.assertFalse(batch.contains(PAYMENT));
+            Assert.assertEquals(batch.bytes(PAYMENT), style.bytes(PAYMENT));
+            Assert.assertFalse(batch.contains(PAYMENT));
+            Assert.assertEquals(batch.size(), 20);
+            Assert.assertEquals(qrError(null, batch), qrError(null, style));
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(QRCodeBatch.prerender(Arrays.asList(PAYMENT, "", null, PAYMENT), style).size(), 1);
+    }
+
+    private static void assertSamePixels(BitMatrix matrix, int onColor, int offColor) throws IOException {
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        MatrixToPngWriter.writeToStream(matrix, onColor, offColor, png);
+
+        BufferedImage actual = ImageIO.read(new ByteArrayInputStream(png.toByteArray()));
+        BufferedImage expected = MatrixToImageWriter.toBufferedImage(matrix, new MatrixToImageConfig(onColor,
+                offColor));
+
+        Assert.assertEquals(actual.getWidth(), expected.getWidth());
+        Assert.assertEquals(actual.getHeight(), expected.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                Assert.assertEquals(actual.getRGB(x, y), expected.getRGB(x, y), "pixel " + x + "x" + y);
+            }
+        }
+    }
+
+    /**
+     * Exception of QR code of text rendered by batch or style, null when rendered.
+     */
+    private static Class<?> qrError(String text, Object source) {
+        try {
+            if (source instanceof QRCodeBatch) {
+                RU.qr(text, (QRCodeBatch) source);
+            } else {
+                RU.qr(text, (QRCodeStyle) source);
+            }
+            return null;
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+}
@@ -6,16 +6,42 @@
  */
 package cz.i24.util.jasper;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
 import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.RandomAccess;
+import java.util.TimeZone;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+import net.sf.jasperreports.engine.JRRewindableDataSource;
+import net.sf.jasperreports.engine.design.JRDesignField;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 
 /**
@@ -54,6 +80,149 @@ public class RUTest {
         Assert.assertEquals("-1 000 000", RU.fd(new BigDecimal("-1000000")));
     }
 
+    @Test
+    public void testNumberFormat() {
+
+        String[] masks = { RU.NUMBER_FORMAT, RU.DECIMAL_FORMAT, "#,##0.000", "0.0", "#,##0.00 K\u010d", "0" };
+        double[] values = { 0, 0.004, 0.005, -0.005, 1.005, 2.5, 3.5, -2.5, 1234567.891, -9876.54321, 1e12 };
+
+        for (String mask : masks) {
+            for (double value : values) {
+                Assert.assertEquals(RU.formatNumber(value, mask), legacyFormat(value, mask, 0), mask + " " + value);
+                Assert.assertEquals(RU.formatNumber(value, mask, -0.5), legacyFormat(value, mask, -0.5), mask + " "
+                        + value);
+            }
+        }
+
+        Assert.assertSame(NumberFormats.get(RU.NUMBER_FORMAT, RU.defaultLocale),
+                NumberFormats.get(RU.NUMBER_FORMAT, RU.defaultLocale));
+        Assert.assertEquals(RU.percentageOf(1, 3), "33,33");
+        Assert.assertEquals(RU.percentageOf(1, 0), RU.DIVIDED_BY_ZERO_VALUE);
+    }
+
+    @Test
+    public void testNumberFormatFast() {
+
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+
+            double value;
+            switch (i % 4) {
+            case 0:
+                value = random.nextInt(2000) / 4d - 250;
+                break;
+            case 1:
+                value = (random.nextDouble() - 0.5) * 2000;
+                break;
+            case 2:
+                value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(17));
+                break;
+            default:
+                value = random.nextLong() / 1000d;
+                break;
+            }
+
+            Assert.assertEquals(RU.formatNumber(value, RU.NUMBER_FORMAT), legacyFormat(value, RU.NUMBER_FORMAT, 0));
+            Assert.assertEquals(RU.formatNumber(value, RU.DECIMAL_FORMAT),
+                    legacyFormat(value, RU.DECIMAL_FORMAT, 0));
+            Assert.assertEquals(RU.formatNumber(value, RU.DECIMAL_FORMAT, -5),
+                    legacyFormat(value, RU.DECIMAL_FORMAT, -5));
+        }
+
+        for (double value : new double[] { -0d, -0.3, 0.5, -0.5, 1.5, Double.NaN, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Long.MAX_VALUE, 999999999999999.5 }) {
+            Assert.assertEquals(RU.formatNumber(value, RU.NUMBER_FORMAT), legacyFormat(value, RU.NUMBER_FORMAT, 0));
+            Assert.assertEquals(RU.formatNumber(value, RU.DECIMAL_FORMAT),
+                    legacyFormat(value, RU.DECIMAL_FORMAT, 0));
+        }
+    }
+
+    @Test
+    public void testNumberFormatExact() {
+
+        Assert.assertEquals(RU.f(new BigDecimal("12345678901234567.895")), "12 345 678 901 234 567,90");
+        Assert.assertEquals(RU.f(new BigDecimal("1.005")), "1,01");
+        Assert.assertEquals(RU.f(new BigDecimal("-1.005")), "-1,01");
+        Assert.assertEquals(RU.f(new BigDecimal("-0.004")), "0,00");
+        Assert.assertEquals(RU.fd(new BigDecimal("2.5")), "2");
+        Assert.assertEquals(RU.fd(new BigDecimal("-0.3")), legacyFormat(-0.3, RU.DECIMAL_FORMAT, 0));
+        Assert.assertEquals(RU.fd(new BigDecimal("98765432109876543210")), "98 765 432 109 876 543 210");
+        Assert.assertEquals(RU.f(new BigDecimal("1234.5"), "#,##0.000"), "1 234,500");
+        Assert.assertEquals(RU.f(new BigDecimal("1234.5"), "0"), "1234");
+        Assert.assertEquals(RU.f(new BigDecimal("1.005"), "#,##0.00 K\u010d"), "1,01 K\u010d");
+        Assert.assertEquals(RU.f(new BigDecimal("-1234.565"), "#,##0.00 K\u010d;-#,##0.00 K\u010d"),
+                "-1 234,57 K\u010d");
+        Assert.assertEquals(RU.f(2.125, "0.00 K\u010d"), legacyFormat(2.125, "0.00 K\u010d", 0));
+
+        Assert.assertEquals(RU.f(Long.MAX_VALUE), "9 223 372 036 854 775 807,00");
+        Assert.assertEquals(RU.fd(Long.MIN_VALUE), "-9 223 372 036 854 775 808");
+        Assert.assertEquals(RU.f(-42), "-42,00");
+        Assert.assertEquals(RU.fd(1234567), "1 234 567");
+        Assert.assertEquals(RU.f(7, "0.0"), "7,0");
+        Assert.assertEquals(RU.f(BigInteger.TEN.pow(20)), "100 000 000 000 000 000 000,00");
+
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            long value = random.nextLong() % 100000000000L;
+            Assert.assertEquals(RU.f(value), legacyFormat(value, RU.NUMBER_FORMAT, 0));
+            Assert.assertEquals(RU.fd(value), legacyFormat(value, RU.DECIMAL_FORMAT, 0));
+            BigDecimal decimal = BigDecimal.valueOf(value, 2);
+            Assert.assertEquals(RU.f(decimal), legacyFormat(decimal.doubleValue(), RU.NUMBER_FORMAT, 0));
+        }
+    }
+
+    @Test
+    public void testNumberFormatLocales() {
+
+        // Hebrew negative prefix is left-to-right mark and minus sign
+        Locale[] locales = { new Locale("iw", "IL"), Locale.GERMANY, Locale.US, new Locale("ar", "EG") };
+
+        Random random = new Random(11);
+        for (int i = 0; i < 10000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+            long number = random.nextLong() % 100000000000L;
+            for (Locale locale : locales) {
+                String message = locale + " " + value;
+                Assert.assertEquals(NumberFormats.format(value, RU.NUMBER_FORMAT, 0, locale),
+                        legacyFormat(value, RU.NUMBER_FORMAT, 0, locale), message);
+                Assert.assertEquals(NumberFormats.format(value, RU.DECIMAL_FORMAT, 0, locale),
+                        legacyFormat(value, RU.DECIMAL_FORMAT, 0, locale), message);
+                Assert.assertEquals(NumberFormats.format(number, RU.DECIMAL_FORMAT, locale),
+                        legacyFormat(number, RU.DECIMAL_FORMAT, 0, locale), locale + " " + number);
+                Assert.assertEquals(NumberFormats.format(BigDecimal.valueOf(number, 2), RU.NUMBER_FORMAT, locale),
+                        legacyFormat(number / 100d, RU.NUMBER_FORMAT, 0, locale), locale + " " + number);
+            }
+        }
+    }
+
+    /** formatting as implemented originally, without cache */
+    private static String legacyFormat(double value, String mask, double round) {
+        return legacyFormat(value, mask, round, RU.defaultLocale);
+    }
+
+    private static String legacyFormat(double value, String mask, double round, Locale locale) {
+
+        if (round < 0) {
+            value = Math.round(value / round) * round;
+        } else {
+            double rounding = 10;
+            if (mask.lastIndexOf(".") > 0) {
+                String ma = mask.substring(mask.lastIndexOf(".") + 1);
+                if (ma.length() > 0) {
+                    rounding = Math.pow(rounding, ma.length());
+                    value = Math.round(value * rounding) / rounding;
+                }
+            }
+        }
+
+        DecimalFormat df = (DecimalFormat) NumberFormat.getInstance(locale);
+        DecimalFormatSymbols symbols = df.getDecimalFormatSymbols();
+        symbols.setGroupingSeparator(' ');
+        df.setDecimalFormatSymbols(symbols);
+        df.applyPattern(mask);
+        return df.format(value);
+    }
+
     @Test
     public void testJson() throws IOException {
 
@@ -72,6 +241,196 @@ public class RUTest {
         Assert.assertNotNull(val);
     }
 
+    @Test
+    public void testJsonPath() throws IOException {
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode data = mapper.readTree("{\"customer\": {\"name\": \"Rider\", \"age\": 33}, "
+                + "\"items\": [{\"name\": \"A\"}, {\"name\": \"B\", \"codes\": [[1, 2], [3, 4]]}]}");
+
+        Assert.assertEquals(RU.json(data, "customer.name"), "Rider");
+        Assert.assertEquals(RU.json(data, "customer.age"), new BigDecimal("33"));
+        Assert.assertEquals(RU.json(data, "customer.name."), "Rider");
+        Assert.assertEquals(RU.json(data, "items[1].name"), "B");
+        Assert.assertEquals(RU.json(data, "items.1.name"), "B");
+        Assert.assertEquals(RU.json(data, "items[1].codes[1][0]"), new BigDecimal("3"));
+        Assert.assertEquals(((List<?>) RU.json(data, "items")).size(), 2);
+        Assert.assertNull(RU.json(data, "items[2].name"));
+        Assert.assertNull(RU.json(data, "customer.missing.name"));
+        Assert.assertEquals(RU.json(data, "customer..name", "xxx"), "xxx");
+        Assert.assertNull(RU.json(data, "items[x].name"));
+
+        JsonPath path = JsonPath.compile("items[0].name");
+        Assert.assertEquals(path.length(), 3);
+        Assert.assertEquals(RU.json(data, path), "A");
+        Assert.assertEquals(RU.json(null, path, "xxx"), "xxx");
+        Assert.assertEquals(JsonPath.compile("a.b..").length(), 2);
+
+        JsonNode literal = mapper.readTree("{\"a\": {\"k[0]\": \"literal\", \"k\": [\"first\"]}}");
+        Assert.assertEquals(RU.json(literal, "a.k\\[0]"), "literal");
+        Assert.assertEquals(RU.json(literal, "a.k[0]"), "first");
+        Assert.assertEquals(RU.json(literal, "a.k\\[0]", "xxx"), "literal");
+        Assert.assertEquals(JsonPath.compile("a.k\\[0]").length(), 2);
+        Assert.assertEquals(JsonPath.compile("a.k\\[0][0]").length(), 3);
+
+        Assert.assertSame(JsonPath.of("customer.name"), JsonPath.of("customer.name"));
+    }
+
+    @Test
+    public void testJsonProjection() throws IOException {
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode data = mapper.readTree("{\"customer\": {\"name\": \"Rider\", \"address\": {\"city\": \"Praha\", "
+                + "\"zip\": \"11000\"}}, \"items\": [{\"code\": 1}, {\"code\": 2}]}");
+
+        String[] paths = { "customer.address.city", "customer.name", "customer.address.zip", "items[1].code",
+                "items.1.code", "customer.missing", "customer" };
+        JsonProjection projection = JsonProjection.of(paths);
+        Assert.assertEquals(projection.size(), paths.length);
+
+        Object[] values = RU.jsonValues(data, projection, "xxx");
+        for (int i = 0; i < paths.length; i++) {
+            Assert.assertEquals(values[i], RU.json(data, paths[i], "xxx"), paths[i]);
+        }
+        Assert.assertSame(projection.resolve(data)[6], data.get("customer"));
+        Assert.assertEquals(RU.jsonValues(null, projection)[0], null);
+
+        JsonRowMemo memo = new JsonRowMemo();
+        Assert.assertSame(memo.resolve(data, "customer.address"), memo.resolve(data, "customer.address"));
+        Assert.assertNull(memo.resolve(data, "customer.missing"));
+        JsonNode other = mapper.readTree("{\"customer\": {\"name\": \"Other\"}}");
+        Assert.assertEquals(RU.jsonMemo(memo, other, "customer.name"), "Other");
+        Assert.assertEquals(RU.jsonMemo(memo, data, "customer.name"), "Rider");
+        Assert.assertEquals(RU.jsonMemo(memo, data, "customer.missing", "xxx"), "xxx");
+        Assert.assertEquals(RU.jsonMemo(null, data, "customer.name"), "Rider");
+
+        // identity of row is assumed, modified row needs clear
+        ((ObjectNode) data.get("customer")).put("name", "Changed");
+        Assert.assertEquals(RU.jsonMemo(memo, data, "customer.name"), "Rider");
+        Assert.assertEquals(RU.json(data, "customer.name"), "Changed");
+        memo.clear();
+        Assert.assertEquals(RU.jsonMemo(memo, data, "customer.name"), "Changed");
+    }
+
+    @Test
+    public void testJsonTyped() throws IOException {
+
+        JsonNode data = new ObjectMapper().readTree("{\"int\": 42, \"long\": 12345678901, \"double\": 1000.45, "
+                + "\"text\": \" 17 \", \"decimal\": \"0.10\", \"date\": \"14.02.1978\", \"bad\": \"x\", "
+                + "\"null\": null, \"obj\": {\"a\": 1}}");
+
+        Assert.assertEquals(RU.jsonLong(data, "int"), 42L);
+        Assert.assertEquals(RU.jsonLong(data, "long"), 12345678901L);
+        Assert.assertEquals(RU.jsonLong(data, "double"), 1000L);
+        Assert.assertEquals(RU.jsonLong(data, "text"), 17L);
+        Assert.assertEquals(RU.jsonLong(data, "bad", -1), -1L);
+        Assert.assertEquals(RU.jsonLong(data, "null", -1), -1L);
+        Assert.assertEquals(RU.jsonLong(data, "missing"), 0L);
+
+        Assert.assertEquals(RU.jsonDouble(data, "double"), 1000.45);
+        Assert.assertEquals(RU.jsonDouble(data, "int"), 42d);
+        Assert.assertEquals(RU.jsonDouble(data, "decimal"), 0.1);
+        Assert.assertEquals(RU.jsonDouble(data, "obj", -1), -1d);
+        Assert.assertEquals(RU.formatNumber(RU.jsonDouble(data, "double"), RU.NUMBER_FORMAT), "1 000,45");
+
+        Assert.assertEquals(RU.jsonDecimal(data, "decimal"), new BigDecimal("0.10"));
+        Assert.assertEquals(RU.jsonDecimal(data, "double"), RU.json(data, "double"));
+        Assert.assertNull(RU.jsonDecimal(data, "bad"));
+        Assert.assertEquals(RU.jsonDecimal(data, "null", BigDecimal.ZERO), BigDecimal.ZERO);
+
+        Assert.assertEquals(RU.jsonString(data, "text"), " 17 ");
+        Assert.assertEquals(RU.jsonString(data, "int"), "42");
+        Assert.assertNull(RU.jsonString(data, "obj"));
+        Assert.assertEquals(RU.jsonString(data, "null", "-"), "-");
+
+        Assert.assertEquals(RU.jsonDate(data, "date"), RU.date("14.02.1978"));
+        Assert.assertNull(RU.jsonDate(data, "bad"));
+        Assert.assertNull(RU.jsonDate(data, "int"));
+        Assert.assertNull(RU.jsonDate(null, "date"));
+    }
+
+    @Test
+    public void testJsonArray() throws IOException {
+
+        JsonNode data = new ObjectMapper().readTree("{\"items\": [{\"code\": 1}, {\"code\": 2}, {\"code\": 3}]}");
+
+        List<?> items = (List<?>) RU.json(data, "items");
+        Assert.assertTrue(items instanceof RandomAccess);
+        Assert.assertEquals(items.size(), 3);
+        Assert.assertSame(items.get(1), data.get("items").get(1));
+        Assert.assertEquals(items.indexOf(data.get("items").get(2)), 2);
+        Assert.assertEquals(RU.in(items, "code", RU.list(new BigDecimal("2"), BigDecimal.valueOf(3))).size(), 2);
+
+        ((ArrayNode) data.get("items")).addObject().put("code", 4);
+        Assert.assertEquals(items.size(), 4);
+
+        try {
+            items.remove(0);
+            Assert.fail("view is read-only");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals(items.size(), 4);
+        }
+        try {
+            items.get(4);
+            Assert.fail("index out of bounds");
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testJsonStream() throws IOException, JRException {
+
+        StringBuilder json = new StringBuilder("{\"meta\": {\"count\": 3, \"riders\": []}, \"data\": {\"riders\": [");
+        for (int i = 0; i < 3; i++) {
+            json.append(i > 0 ? "," : "").append("{\"name\": \"Rider ").append(i).append("\", \"amount\": ")
+                    .append(i * 10.5).append(", \"team\": {\"name\": \"T").append(i)
+                    .append("\", \"logo\": \"x\"}, \"history\": [1, 2, 3], \"note\": null}");
+        }
+        json.append("]}}");
+
+        JRDesignField name = field("name", null, String.class);
+        JRDesignField amount = field("amount", null, BigDecimal.class);
+        JRDesignField team = field("teamName", "team.name", String.class);
+        JRDesignField history = field("history", "history[1]", Long.class);
+        JRDesignField note = field("note", null, String.class);
+
+        JsonStreamDataSource source = new JsonStreamDataSource(new ByteArrayInputStream(json.toString().getBytes(
+                "UTF-8")), "data.riders", new JRField[] { name, amount, team, history, note });
+        try {
+            for (int i = 0; i < 3; i++) {
+                Assert.assertTrue(source.next());
+                Assert.assertEquals(source.getFieldValue(name), "Rider " + i);
+                Assert.assertEquals(source.getFieldValue(amount), new BigDecimal(String.valueOf(i * 10.5)));
+                Assert.assertEquals(source.getFieldValue(team), "T" + i);
+                Assert.assertEquals(source.getFieldValue(history), 2L);
+                Assert.assertNull(source.getFieldValue(note));
+                Assert.assertNull(source.getRecord().path("team").get("logo"));
+            }
+            Assert.assertFalse(source.next());
+            Assert.assertFalse(source.next());
+        } finally {
+            source.close();
+        }
+
+        source = new JsonStreamDataSource(new ByteArrayInputStream(json.toString().getBytes("UTF-8")), "data");
+        Assert.assertFalse(source.next());
+        source.close();
+
+        source = new JsonStreamDataSource(new ByteArrayInputStream("[{\"a\": {\"b\": 1}}]".getBytes("UTF-8")), null);
+        Assert.assertTrue(source.next());
+        Assert.assertEquals(RU.json(source.getFieldValue(field("a", null, Object.class)), "b"), BigDecimal.ONE);
+        Assert.assertFalse(source.next());
+        source.close();
+    }
+
+    private static JRDesignField field(String name, String description, Class<?> type) {
+        JRDesignField field = new JRDesignField();
+        field.setName(name);
+        field.setDescription(description);
+        field.setValueClass(type);
+        return field;
+    }
 
     @Test
     public void testDate() throws IOException {
@@ -87,6 +446,27 @@ public class RUTest {
 
     }
 
+    @Test
+    public void testDateFormat() throws ParseException {
+
+        Date date = new Date(255571200000L);
+        for (String mask : new String[] { RU.DATE_FORMAT, "yyyy-MM-dd HH:mm:ss", "d. MMMM yyyy", "EEE" }) {
+            Assert.assertEquals(RU.formatDate(date, mask), new SimpleDateFormat(mask).format(date));
+        }
+        Assert.assertEquals(RU.formatDate(date), new SimpleDateFormat(RU.DATE_FORMAT).format(date));
+        Assert.assertEquals(RU.formatDate(null), "");
+
+        Assert.assertEquals(RU.date("14.02.1978"), new SimpleDateFormat(RU.DATE_FORMAT).parse("14.02.1978"));
+        Assert.assertEquals(RU.date("1978-02-14", "yyyy-MM-dd"), RU.date("14.02.1978"));
+        Assert.assertNull(RU.date("xx.02.1978"));
+
+        Assert.assertSame(DateFormats.get(RU.DATE_FORMAT), DateFormats.get(RU.DATE_FORMAT));
+        Assert.assertEquals(DateFormats.get("MMMM", Locale.ENGLISH, TimeZone.getTimeZone("UTC")).format(date),
+                "February");
+        Assert.assertEquals(DateFormats.get("MMMM", Locale.GERMAN, TimeZone.getTimeZone("UTC")).format(date),
+                "Februar");
+    }
+
     @Test
     public void testLogical() {
         Assert.assertEquals(true, RU.isTrue("true"));
@@ -186,4 +566,358 @@ public class RUTest {
 
     }
 
+    @Test
+    public void testIndex() {
+
+        Random random = new Random(3);
+        List<RiderVO> riders = new ArrayList<RiderVO>();
+        for (int i = 0; i < 1000; i++) {
+            riders.add(new RiderVO(i % 50 == 0 ? null : "P" + random.nextInt(20)));
+        }
+
+        CollectionIndex index = RU.index(riders, "product");
+        Assert.assertEquals(index.size(), riders.size());
+        Assert.assertEquals(index.values().size(), 20);
+
+        List<?>[] filters = { RU.list("P1"), RU.list("P3", "P1", "P3"), RU.list("P7", "X", null), RU.list("X"),
+                RU.list(), new ArrayList<String>(new HashSet<String>(Arrays.asList("P2", "P4"))) };
+        for (List<?> filter : filters) {
+            Assert.assertEquals(RU.in(index, filter), RU.in(riders, "product", filter), filter.toString());
+            Assert.assertEquals(RU.nin(index, filter), RU.nin(riders, "product", filter), filter.toString());
+        }
+        Assert.assertEquals(RU.in(index, new HashSet<String>(Arrays.asList("P2", "P4"))), RU.in(riders,
+                "product", Arrays.asList("P2", "P4")));
+
+        CollectionIndex self = RU.index(Arrays.asList("CSO4", "CS", "XA", "XB", "CS"), null);
+        Assert.assertEquals(RU.in(self, Arrays.asList("CS", "XA")), Arrays.asList("CS", "XA", "CS"));
+        Assert.assertEquals(RU.nin(self, Arrays.asList("CS")), Arrays.asList("CSO4", "XA", "XB"));
+        Assert.assertEquals(self.count("CS"), 2);
+        Assert.assertEquals(RU.index(null, "product").size(), 0);
+    }
+
+    @Test
+    public void testPropertyAccessor() {
+
+        RiderVO rider = new RiderVO("CS");
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("rider", rider);
+        map.put("riders", Arrays.asList(rider, new RiderVO("XA")));
+
+        Assert.assertEquals(PropertyAccessor.get(rider, "product"), "CS");
+        Assert.assertSame(PropertyAccessor.of(RiderVO.class, "product"), PropertyAccessor.of(RiderVO.class,
+                "product"));
+        Assert.assertEquals(PropertyAccessor.get(rider, "class"), RiderVO.class);
+        Assert.assertNull(PropertyAccessor.get(rider, "missing"));
+        Assert.assertNull(PropertyAccessor.get(null, "product"));
+
+        Assert.assertSame(PropertyAccessor.get(map, "rider"), rider);
+        Assert.assertEquals(PropertyAccessor.get(map, "rider.product"), "CS");
+        // PropertyUtils does not support indexed properties of maps
+        Assert.assertNull(PropertyAccessor.get(map, "riders[1].product"));
+        Assert.assertNull(PropertyAccessor.get(map, "missing.product"));
+        Assert.assertNull(PropertyAccessor.get(map, "rider.missing"));
+
+        Assert.assertEquals(RU.in(Arrays.asList(map, map), "rider.product", RU.list("CS")).size(), 2);
+        Assert.assertEquals(RU.in(Arrays.asList(rider, map), "product", RU.list("CS")).size(), 1);
+    }
+
+    @Test
+    public void testInLazy() throws JRException {
+
+        Random random = new Random(5);
+        List<RiderVO> riders = new ArrayList<RiderVO>();
+        for (int i = 0; i < 500; i++) {
+            riders.add(new RiderVO(i % 40 == 0 ? null : "P" + random.nextInt(10)));
+        }
+
+        List<?>[] filters = { RU.list("P1"), RU.list("P3", "P1", "P3"), RU.list("X", null), RU.list(), null };
+        for (List<?> filter : filters) {
+            Collection<?> inLazy = RU.inLazy(riders, "product", filter);
+            Collection<?> in = RU.in(riders, "product", filter);
+            Collection<?> ninLazy = RU.ninLazy(riders, "product", filter);
+            Collection<?> nin = RU.nin(riders, "product", filter);
+            Assert.assertEquals(new ArrayList<Object>(inLazy), new ArrayList<Object>(in));
+            Assert.assertEquals(new ArrayList<Object>(ninLazy), new ArrayList<Object>(nin));
+            Assert.assertEquals(RU.inLazy(riders, "product", filter).size(), RU.in(riders, "product", filter).size());
+        }
+
+        Collection<?> lazy = RU.inLazy(riders, "product", RU.list("P2"));
+        riders.add(0, new RiderVO("P2"));
+        Assert.assertSame(lazy.iterator().next(), riders.get(0));
+        Assert.assertTrue(RU.inLazy(riders, "product", RU.list("X")).isEmpty());
+
+        JRRewindableDataSource source = RU.inSource(riders, "product", RU.list("P2"));
+        JRDesignField product = field("product", null, String.class);
+        int count = 0;
+        while (source.next()) {
+            Assert.assertEquals(source.getFieldValue(product), "P2");
+            count++;
+        }
+        Assert.assertEquals(count, RU.in(riders, "product", RU.list("P2")).size());
+        source.moveFirst();
+        Assert.assertTrue(source.next());
+    }
+
+    @Test
+    public void testAggregations() {
+
+        Random random = new Random(11);
+        List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < 2000; i++) {
+            Map<String, Object> row = new HashMap<String, Object>();
+            row.put("team", i % 97 == 0 ? null : "T" + random.nextInt(7));
+            row.put("amount", i % 13 == 0 ? null : i % 3 == 0 ? (Object) random.nextInt(1000)
+                    : BigDecimal.valueOf(random.nextInt(100000), 2));
+            rows.add(row);
+        }
+
+        BigDecimal sum = RU.sum(rows, "amount");
+        long count = RU.count(rows, "amount");
+        Object min = RU.min(rows, "amount");
+        Object max = RU.max(rows, "amount");
+        Map<Object, List<Object>> groups = RU.groupBy(rows, "team");
+        Map<Object, BigDecimal> sums = RU.groupSum(rows, "team", "amount");
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal group : sums.values()) {
+            total = total.add(group);
+        }
+        Assert.assertEquals(groups.keySet(), sums.keySet());
+        Assert.assertEquals(new ArrayList<Object>(groups.keySet()).get(0), rows.get(1).get("team"));
+        Assert.assertTrue(sum.compareTo(total) >= 0);
+        Assert.assertTrue(new BigDecimal(min.toString()).compareTo(new BigDecimal(max.toString())) < 0);
+
+        int threshold = Aggregations.getParallelThreshold();
+        try {
+            Aggregations.setParallelThreshold(7);
+            Assert.assertEquals(RU.sum(rows, "amount"), sum);
+            Assert.assertEquals(RU.count(rows, "amount"), count);
+            Assert.assertSame(RU.min(rows, "amount"), min);
+            Assert.assertSame(RU.max(rows, "amount"), max);
+            Assert.assertEquals(RU.groupBy(rows, "team"), groups);
+            Assert.assertEquals(new ArrayList<Object>(RU.groupBy(rows, "team").keySet()), new ArrayList<Object>(
+                    groups.keySet()));
+            Assert.assertEquals(RU.groupSum(rows, "team", "amount"), sums);
+        } finally {
+            Aggregations.setParallelThreshold(threshold);
+        }
+
+        Assert.assertEquals(RU.sum(Arrays.asList(1, 2L, new BigDecimal("0.5"), "x", null), null),
+                new BigDecimal("3.5"));
+        Assert.assertEquals(RU.max(Arrays.asList(1, 2L, new BigDecimal("1.5")), null), 2L);
+        Assert.assertEquals(RU.min(Arrays.asList("b", "a", "c"), null), "a");
+        Assert.assertNull(RU.min(null, "amount"));
+        Assert.assertEquals(RU.sum(null, "amount"), BigDecimal.ZERO);
+    }
+
+    @Test
+    public void testCodeTable() {
+
+        String[] messages = { "New", "Paid", "Cancelled", "Paid again" };
+        int[] dense = { 10, 20, 30, 20 };
+        int[] sparse = { -2000000000, 7, 2000000000, 7 };
+
+        for (int[] codes : new int[][] { dense, sparse }) {
+            CodeTable table = CodeTable.of(messages, codes);
+            Assert.assertEquals(table.size(), 3);
+            for (int code : new int[] { codes[0], codes[1], codes[2], 0, 15, Integer.MIN_VALUE, Integer.MAX_VALUE }) {
+                Assert.assertEquals(RU.message(table, code), RU.message(messages, codes, code), "code " + code);
+            }
+            Assert.assertEquals(RU.message(table, codes[1]), "Paid again");
+            Assert.assertEquals(RU.message(table, null), "");
+        }
+
+        Random random = new Random(13);
+        int[] codes = new int[1000];
+        String[] labels = new String[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = random.nextInt(i % 2 == 0 ? 500 : Integer.MAX_VALUE);
+            labels[i] = "L" + i;
+        }
+        CodeTable table = CodeTable.of(labels, codes);
+        for (int i = 0; i < codes.length; i++) {
+            Assert.assertEquals(RU.message(table, codes[i]), RU.message(labels, codes, codes[i]));
+            Assert.assertEquals(RU.message(table, i), RU.message(labels, codes, i));
+        }
+        Assert.assertFalse(CodeTable.of(new String[0], new int[0]).contains(0));
+
+        String[] nullLabel = { "New", null };
+        int[] nullCodes = { 10, 20 };
+        Assert.assertNull(RU.message(CodeTable.of(nullLabel, nullCodes), 20));
+        Assert.assertNull(RU.message(nullLabel, nullCodes, 20));
+        Assert.assertEquals(RU.message(CodeTable.of(nullLabel, nullCodes), 30), "");
+
+        try {
+            CodeTable.of(messages, new int[] { 10, 20 });
+            Assert.fail("lengths differ");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("4 != 2"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMarkup() {
+
+        Assert.assertEquals(RU.b("x"), "<b>x</b>");
+        Assert.assertEquals(RU.b((Object) null), "<b></b>");
+        Assert.assertEquals(RU.bi("x"), "<i><b>x</b></i>");
+        Assert.assertEquals(RU.red("x"), "<font color=\"red\">x</font>");
+        Assert.assertEquals(RU.nc(1), "<font color=\"#D16B1B\">1</font>");
+        Assert.assertEquals(RU.font("red", null), "");
+        Assert.assertEquals(RU.tag("sup", "2"), "<sup>2</sup>");
+        Assert.assertEquals(RU.style("Arial", "x", 9), "<style pdfFontName=\"arial.ttf\" size=\"9\">x</style>");
+        Assert.assertEquals(RU.style("Arial", "x", false), "<style pdfFontName=\"arial.otf\">x</style>");
+        Assert.assertEquals(RU.style(null, "x"), "");
+        Assert.assertEquals(RU.b(null, "x", 8), "<style pdfFontName=\"helveticabd.ttf\" size=\"8\">x</style>");
+        Assert.assertEquals(RU.s("abc", true), "<style isStrikeThrough=\"true\"> abc </style>");
+        Assert.assertEquals(RU.s("abcd", false), "<style>abcd</style>");
+        Assert.assertEquals(RU.s(null, true), "");
+
+        Assert.assertEquals(RU.styled("x").bold().color("red").font("arial", 9).toString(), RU.style("arial", RU.red(RU
+                .b("x")), 9));
+        Assert.assertEquals(RU.styled(null).italic().underline().sup().sub().tag("li").strike().toString(),
+                "<style isStrikeThrough=\"true\"><li><sub><sup><u><i></i></u></sup></sub></li></style>");
+        Assert.assertEquals(RU.styled("x").font(null, 9).toString(), "x");
+
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            longText.append(i);
+        }
+        Assert.assertEquals(RU.b(longText), "<b>" + longText + "</b>");
+        Assert.assertEquals(RU.b("y"), "<b>y</b>");
+    }
+
+    @Test
+    public void testMarkupTags() {
+
+        Assert.assertEquals(RU.b("Arial", "x", 9), "<style pdfFontName=\"arialbd.ttf\" size=\"9\">x</style>");
+        Assert.assertEquals(RU.i(null, "x", false), "<style pdfFontName=\"helveticai.otf\">x</style>");
+        Assert.assertEquals(RU.bi("Arial", "x", 100, true),
+                "<style pdfFontName=\"arialbi.ttf\" size=\"100\">x</style>");
+        Assert.assertEquals(RU.b("Arial", null, 9), "");
+        Assert.assertEquals(RU.style("Arial", "x", 9), RU.style("Arial", "x", 9));
+        Assert.assertSame(MarkupTags.style("Arial", MarkupTags.BOLD, 9, true),
+                MarkupTags.style("Arial", MarkupTags.BOLD, 9, true));
+        Assert.assertEquals(MarkupTags.style("Arial", MarkupTags.REGULAR, 0, true),
+                MarkupTags.style("Arial", MarkupTags.REGULAR, -1, true));
+
+        Assert.assertEquals(RU.red("x"), "<font color=\"red\">x</font>");
+        Assert.assertSame(MarkupTags.color("red"), MarkupTags.color("red"));
+        Assert.assertEquals(RU.styled("x").color("#D16B1B").toString(), "<font color=\"#D16B1B\">x</font>");
+    }
+
+    @Test
+    public void testParagraph() {
+
+        String[] texts = { "", "a", "a\n\tb", "a\n\t\n\tb\n\t", "\n\t", "\n\ta", "\n\n\t", "a\n\tb\n\t\n\t" };
+        for (String text : texts) {
+            for (int size : new int[] { 4, 100 }) {
+                StringBuilder expected = new StringBuilder();
+                for (String par : text.split("\n\t")) {
+                    expected.append(par).append("\n<font size=\"" + size + "\" color=\"white\">X</font>\n");
+                }
+                Assert.assertEquals(RU.paragraph(text, size), expected.toString());
+            }
+        }
+        Assert.assertEquals(RU.paragraph(null), "");
+
+        StringBuilder terms = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            terms.append("Article ").append(i).append("\n\t");
+        }
+        Paragraphs.getCache().clear();
+        String paragraphs = RU.paragraph(terms.toString());
+        Assert.assertEquals(Paragraphs.getCache().getWeight(), terms.length() + paragraphs.length());
+        Assert.assertSame(RU.paragraph(new String(terms)), paragraphs);
+        Assert.assertNotEquals(RU.paragraph(terms.toString(), 5), paragraphs);
+        Assert.assertTrue(paragraphs.startsWith("Article 0" + RU.paragraph()));
+
+        Assert.assertEquals(RU.barCode39("AB1"), "* A B 1 *");
+        Assert.assertEquals(RU.barCode39(null), "* *");
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testEscape() {
+
+        String name = "Smith & Sons";
+        Assert.assertSame(RU.escape("Smith"), RU.escape("Smith"));
+        Assert.assertEquals(RU.escape("<a href=\"x\">&</a>"), "&lt;a href=&quot;x&quot;&gt;&amp;&lt;/a&gt;");
+        Assert.assertEquals(RU.escape(null), "");
+
+        Assert.assertEquals(RU.font("red", name, true), "<font color=\"red\">Smith &amp; Sons</font>");
+        Assert.assertEquals(RU.font("red", name), "<font color=\"red\">Smith & Sons</font>");
+        Assert.assertEquals(RU.tag("b", "<x>", true), "<b>&lt;x&gt;</b>");
+        Assert.assertEquals(RU.style("Arial", "1 < 2", 9, true, true),
+                "<style pdfFontName=\"arial.ttf\" size=\"9\">1 &lt; 2</style>");
+        Assert.assertEquals(RU.style("Arial", null, 9, true, true), "");
+
+        Assert.assertEquals(RU.styled(name).escaped().bold().color("red").toString(),
+                RU.red(RU.b(RU.escape(name))));
+        Assert.assertEquals(RU.styled("&").bold().toString(), "<b>&</b>");
+
+        String escaped = RU.escape(name);
+        Assert.assertEquals(RU.red(name, true), RU.red(escaped));
+        Assert.assertEquals(RU.nc(name, true), RU.nc(escaped));
+        Assert.assertEquals(RU.silver(name, false), RU.silver(name));
+        Assert.assertEquals(RU.b(name, true), RU.b(escaped));
+        Assert.assertEquals(RU.i(name, true), RU.i(escaped));
+        Assert.assertEquals(RU.bi(name, true), RU.bi(escaped));
+        Assert.assertEquals(RU.bi(name, false), RU.bi(name));
+        Assert.assertEquals(RU.s(name, true, true, true), RU.s(escaped, true, true));
+        Assert.assertEquals(RU.s(name, false, false, true), RU.s(escaped, false, false));
+        Assert.assertEquals(RU.b("Arial", name, 9, true, true), RU.b("Arial", escaped, 9, true));
+        Assert.assertEquals(RU.i(null, name, -1, false, true), RU.i(null, escaped, false));
+        Assert.assertEquals(RU.bi("Arial", name, 9, true, false), RU.bi("Arial", name, 9));
+        Assert.assertEquals(RU.b("Arial", null, 9, true, true), "");
+
+        Assert.assertEquals(RU.u(name, true, true), RU.u(escaped));
+        Assert.assertEquals(RU.u(name, false, true), escaped);
+        Assert.assertEquals(RU.u(name, null, false), name);
+        Assert.assertEquals(RU.u(name, Boolean.TRUE), RU.u(name));
+        Assert.assertEquals(RU.underline(name, true), RU.u(escaped));
+        Assert.assertEquals(RU.color("red", name, true), RU.color("red", escaped));
+        Assert.assertEquals(RU.rgb("#FF0000", name, true), RU.rgb("#FF0000", escaped));
+        Assert.assertEquals(RU.color("red", null, true), "");
+        Assert.assertEquals(RU.sup(name, true), "<sup>Smith &amp; Sons</sup>");
+        Assert.assertEquals(RU.sub(name, true), RU.sub(escaped));
+        Assert.assertEquals(RU.sub(name, false), RU.sub(name));
+    }
+
+    @Test
+    public void testDateFields() {
+
+        TimeZone zone = TimeZone.getDefault();
+        try {
+            for (String id : new String[] { "Europe/Prague", "America/New_York", "Pacific/Kiritimati", "UTC" }) {
+                TimeZone.setDefault(TimeZone.getTimeZone(id));
+                Calendar cal = Calendar.getInstance();
+                for (long time = -13000000000000L; time < 4000000000000L; time += 3599999999L) {
+                    Date date = new Date(time);
+                    cal.setTime(date);
+                    DateFields fields = RU.dateFields(date);
+                    Assert.assertEquals(fields.getYear(), cal.get(Calendar.YEAR), id + " " + time);
+                    Assert.assertEquals(fields.getMonth(), cal.get(Calendar.MONTH) + 1, id + " " + time);
+                    Assert.assertEquals(fields.getDay(), cal.get(Calendar.DAY_OF_MONTH), id + " " + time);
+                }
+            }
+
+            TimeZone.setDefault(TimeZone.getTimeZone("Europe/Prague"));
+            Date date = new GregorianCalendar(2026, Calendar.MARCH, 29, 23, 30).getTime();
+            Assert.assertEquals(RU.getDay(date), Integer.valueOf(29));
+            Assert.assertEquals(RU.getMonth(date), Integer.valueOf(3));
+            Assert.assertEquals(RU.getYear(date), Integer.valueOf(2026));
+            Assert.assertEquals(RU.dateToAcc(date), "2026.03");
+            Assert.assertEquals(RU.dateToAcc(new GregorianCalendar(2026, Calendar.DECEMBER, 31).getTime()),
+                    "2026.12");
+            Assert.assertEquals(RU.dateFields(new GregorianCalendar(1582, Calendar.OCTOBER, 4).getTime())
+                    .toString(), "4.10.1582");
+            Assert.assertEquals(RU.dateDifference(date, new Date(date.getTime() + 3723000)), "01:02:03");
+            Assert.assertNull(RU.dateFields(null));
+            Assert.assertNull(RU.getDay(null));
+        } finally {
+            TimeZone.setDefault(zone);
+        }
+    }
+
 }